@@ -12,14 +12,23 @@ class BCC {
     final int[] par;
     final int[] low;
     final int[] ord;
+    /**
+     * {@code parSlot[v]} は DFS で v を発見した辺の位置．
+     */
+    final int[] parSlot;
 
     public BCC(AbstractGraph<? extends AbstractEdge> g) {
+        this(new CSRGraph(g));
+    }
+
+    public BCC(CSRGraph g) {
         this.n = g.getV();
         this.m = g.getE();
         this.ids = new int[n];
         this.par = new int[n];
         this.low = new int[n];
         this.ord = new int[n];
+        this.parSlot = new int[n];
         this.groups = build(g);
     }
 
@@ -39,7 +48,7 @@ class BCC {
         return ids[i];
     }
 
-    private int[][] build(AbstractGraph<? extends AbstractEdge> g) {
+    private int[][] build(CSRGraph g) {
         lowLink(g);
         java.util.Arrays.fill(ids, -1);
         int groupNum = 0;
@@ -51,9 +60,9 @@ class BCC {
             stack[ptr++] = i;
             while (ptr > 0) {
                 int u = stack[--ptr];
-                for (AbstractEdge e : g.getEdges(u)) {
-                    int v = e.to;
-                    if (u != par[v]) continue;
+                for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                    int v = g.to[k];
+                    if (u != par[v] || k != parSlot[v]) continue;
                     stack[ptr++] = v;
                     if (ord[u] >= low[v]) {
                         ids[v] = ids[u];
@@ -78,11 +87,12 @@ class BCC {
         return groups;
     }
 
-    private void lowLink(AbstractGraph<? extends AbstractEdge> g) {
+    private void lowLink(CSRGraph g) {
         int nowOrd = 0;
         java.util.Arrays.fill(ord, -1);
         long[] stack = new long[n];
         int ptr = 0;
+        boolean[] parSkipped = new boolean[n];
         for (int i = 0; i < n; i++) {
             if (ord[i] >= 0) continue;
             par[i] = -1;
@@ -95,19 +105,26 @@ class BCC {
                     low[u] = ord[u] = nowOrd++;
                 }
                 if (j < g.deg(u)) {
-                    int to = g.getEdge(u, j).to;
+                    int k = g.start[u] + j;
+                    int to = g.to[k];
                     stack[ptr++] += 1l << 32;
-                    if (to == par[u]) continue;
+                    // 親へ戻る辺は 1 本だけ飛ばす．多重辺の残りは後退辺として扱う．
+                    if (to == par[u] && !parSkipped[u]) {
+                        parSkipped[u] = true;
+                        continue;
+                    }
                     if (ord[to] == -1) {
                         stack[ptr++] = 0l << 32 | to;
                         par[to] = u;
+                        parSlot[to] = k;
                     } else {
                         low[u] = Math.min(low[u], ord[to]);
                     }
                 } else {
                     while (j --> 0) {
-                        int to = g.getEdge(u, j).to;
-                        if (par[to] == u) {
+                        int k = g.start[u] + j;
+                        int to = g.to[k];
+                        if (par[to] == u && parSlot[to] == k) {
                             low[u] = Math.min(low[u], low[to]);
                         }
                     }
@@ -0,0 +1,62 @@
+package graph;
+/**
+ * 一つのグラフに対して，複数の始点からの単一始点最短経路問題を {@code ForkJoinPool} 上で並列に解く．
+ * 各ワーカーは距離配列とヒープを一つずつ持ってそれを始点間で使い回し，結果は始点ごとに {@code ResultConsumer} に渡す．
+ * 始点数を S として V×S の行列を確保することはない．辺の重みは非負でなければならない．
+ */
+class BatchDijkstra {
+    @FunctionalInterface
+    public static interface ResultConsumer {
+        /**
+         * 始点 {@code source} からの最短距離 {@code dist} を受け取る．複数のスレッドから同時に呼ばれる．
+         * {@code dist} は呼び出しから戻った後に次の始点の計算で上書きされるので，必要ならコピーすること．
+         */
+        public void accept(int source, long[] dist);
+    }
+
+    private final CSRGraph g;
+    private final int n;
+    private final java.util.concurrent.ForkJoinPool pool;
+
+    public BatchDijkstra(CSRGraph g) {
+        this(g, java.util.concurrent.ForkJoinPool.commonPool());
+    }
+
+    public BatchDijkstra(CSRGraph g, java.util.concurrent.ForkJoinPool pool) {
+        this.g = g;
+        this.n = g.getV();
+        this.pool = pool;
+    }
+
+    /**
+     * {@code sources} の各頂点を始点とする最短距離を計算し，終わったものから順に {@code consumer} に渡す．
+     * 全ての始点について処理が終わるまで戻らない．
+     */
+    public void run(int[] sources, ResultConsumer consumer) {
+        for (int s : sources) rangeCheck(s, 0, n);
+        int workers = Math.min(pool.getParallelism(), sources.length);
+        java.util.concurrent.atomic.AtomicInteger next = new java.util.concurrent.atomic.AtomicInteger();
+        java.util.ArrayList<java.util.concurrent.ForkJoinTask<?>> tasks = new java.util.ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            tasks.add(pool.submit(() -> {
+                long[] dist = new long[n];
+                ints.collection.IntIndexedPriorityQueue pq = new ints.collection.IntIndexedPriorityQueue(n);
+                for (int i; (i = next.getAndIncrement()) < sources.length;) {
+                    Dijkstra.solve(g, sources[i], dist, null, null, pq);
+                    consumer.accept(sources[i], dist);
+                }
+            }));
+        }
+        for (java.util.concurrent.ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    private void rangeCheck(int i, int minInlusive, int maxExclusive) {
+        if (i < 0 || i >= maxExclusive) {
+            throw new IndexOutOfBoundsException(
+                String.format("Index %d out of bounds for length %d", i, maxExclusive)
+            );
+        }
+    }
+}
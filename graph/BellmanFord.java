@@ -13,8 +13,18 @@ class BellmanFord<Edg extends AbstractEdge> {
     private final int s;
     private final long[] dist;
     private final java.util.ArrayList<Edg> prev;
+    private final int[] prevVertex;
+    private final int[] prevEdge;
 
     public BellmanFord(AbstractGraph<Edg> g, int s) {
+        this(g, s, false);
+    }
+
+    /**
+     * @param queueBased {@code true} なら，距離が更新された頂点のみをキューで管理して緩和する (SPFA)．
+     * 緩和が起きなくなった時点で終了し，負閉路は最短路の辺数が V に達したことで検出する．
+     */
+    public BellmanFord(AbstractGraph<Edg> g, int s, boolean queueBased) {
         this.n = g.getV();
         this.s = s;
         this.dist = new long[n];
@@ -22,13 +32,39 @@ class BellmanFord<Edg extends AbstractEdge> {
         for (int i = 0; i < n; i++) {
             prev.add(null);
         }
-        solve(g);
+        this.prevVertex = null;
+        this.prevEdge = null;
+        if (queueBased) {
+            solveQueue(g);
+        } else {
+            solve(g);
+        }
+    }
+
+    public BellmanFord(CSRGraph g, int s) {
+        this(g, s, false);
+    }
+
+    public BellmanFord(CSRGraph g, int s, boolean queueBased) {
+        this.n = g.getV();
+        this.s = s;
+        this.dist = new long[n];
+        this.prev = null;
+        this.prevVertex = new int[n];
+        this.prevEdge = new int[n];
+        if (queueBased) {
+            solveQueue(g);
+        } else {
+            solve(g);
+        }
     }
 
     private void solve(AbstractGraph<Edg> g) {
         java.util.Arrays.fill(dist, UNREACHABLE);
         dist[s] = 0;
-        for (int $ = 1; $ < n; $++) {
+        boolean updated = true;
+        for (int $ = 1; $ < n && updated; $++) {
+            updated = false;
             for (int u = 0; u < n; u++) {
                 if (dist[u] == UNREACHABLE) continue;
                 for (Edg e : g.getEdges(u)) {
@@ -36,16 +72,19 @@ class BellmanFord<Edg extends AbstractEdge> {
                     if (dist[u] + e.cost < dist[v]) {
                         dist[v] = dist[u] + e.cost;
                         prev.set(v, e);
+                        updated = true;
                     }
                 }
             }
         }
-        for (int $ = 0; $ < n; $++) {
+        for (int $ = 0; $ < n && updated; $++) {
+            updated = false;
             for (int u = 0; u < n; u++) {
                 if (dist[u] == UNREACHABLE) continue;
                 for (Edg e : g.getEdges(u)) {
                     int v = e.to;
                     if (dist[u] == NEG_INF || dist[u] + e.cost < dist[v]) {
+                        updated |= dist[u] != NEG_INF || dist[v] != NEG_INF;
                         dist[u] = dist[v] = NEG_INF;
                     }
                 }
@@ -53,7 +92,135 @@ class BellmanFord<Edg extends AbstractEdge> {
         }
     }
 
+    private void solveQueue(AbstractGraph<Edg> g) {
+        java.util.Arrays.fill(dist, UNREACHABLE);
+        dist[s] = 0;
+        int[] cnt = new int[n];
+        boolean[] inQueue = new boolean[n];
+        boolean[] onCycle = new boolean[n];
+        ints.collection.IntDeque que = new ints.collection.IntDeque(n);
+        que.addLast(s);
+        inQueue[s] = true;
+        boolean hasCycle = false;
+        while (que.size() > 0) {
+            int u = que.removeFirst();
+            inQueue[u] = false;
+            if (onCycle[u]) continue;
+            for (Edg e : g.getEdges(u)) {
+                int v = e.to;
+                if (dist[u] + e.cost < dist[v]) {
+                    dist[v] = dist[u] + e.cost;
+                    prev.set(v, e);
+                    if ((cnt[v] = cnt[u] + 1) >= n) {
+                        onCycle[v] = hasCycle = true;
+                    } else if (!inQueue[v]) {
+                        que.addLast(v);
+                        inQueue[v] = true;
+                    }
+                }
+            }
+        }
+        if (!hasCycle) return;
+        for (int i = 0; i < n; i++) {
+            if (onCycle[i]) que.addLast(i);
+        }
+        while (que.size() > 0) {
+            int u = que.removeFirst();
+            dist[u] = NEG_INF;
+            for (Edg e : g.getEdges(u)) {
+                int v = e.to;
+                if (onCycle[v]) continue;
+                onCycle[v] = true;
+                que.addLast(v);
+            }
+        }
+    }
+
+    private void solve(CSRGraph g) {
+        java.util.Arrays.fill(dist, UNREACHABLE);
+        java.util.Arrays.fill(prevVertex, -1);
+        java.util.Arrays.fill(prevEdge, -1);
+        dist[s] = 0;
+        boolean updated = true;
+        for (int $ = 1; $ < n && updated; $++) {
+            updated = false;
+            for (int u = 0; u < n; u++) {
+                if (dist[u] == UNREACHABLE) continue;
+                for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                    int v = g.to[k];
+                    if (dist[u] + g.cost[k] < dist[v]) {
+                        dist[v] = dist[u] + g.cost[k];
+                        prevVertex[v] = u;
+                        prevEdge[v] = g.id[k];
+                        updated = true;
+                    }
+                }
+            }
+        }
+        for (int $ = 0; $ < n && updated; $++) {
+            updated = false;
+            for (int u = 0; u < n; u++) {
+                if (dist[u] == UNREACHABLE) continue;
+                for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                    int v = g.to[k];
+                    if (dist[u] == NEG_INF || dist[u] + g.cost[k] < dist[v]) {
+                        updated |= dist[u] != NEG_INF || dist[v] != NEG_INF;
+                        dist[u] = dist[v] = NEG_INF;
+                    }
+                }
+            }
+        }
+    }
+
+    private void solveQueue(CSRGraph g) {
+        java.util.Arrays.fill(dist, UNREACHABLE);
+        java.util.Arrays.fill(prevVertex, -1);
+        java.util.Arrays.fill(prevEdge, -1);
+        dist[s] = 0;
+        int[] cnt = new int[n];
+        boolean[] inQueue = new boolean[n];
+        boolean[] onCycle = new boolean[n];
+        ints.collection.IntDeque que = new ints.collection.IntDeque(n);
+        que.addLast(s);
+        inQueue[s] = true;
+        boolean hasCycle = false;
+        while (que.size() > 0) {
+            int u = que.removeFirst();
+            inQueue[u] = false;
+            if (onCycle[u]) continue;
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
+                if (dist[u] + g.cost[k] < dist[v]) {
+                    dist[v] = dist[u] + g.cost[k];
+                    prevVertex[v] = u;
+                    prevEdge[v] = g.id[k];
+                    if ((cnt[v] = cnt[u] + 1) >= n) {
+                        onCycle[v] = hasCycle = true;
+                    } else if (!inQueue[v]) {
+                        que.addLast(v);
+                        inQueue[v] = true;
+                    }
+                }
+            }
+        }
+        if (!hasCycle) return;
+        for (int i = 0; i < n; i++) {
+            if (onCycle[i]) que.addLast(i);
+        }
+        while (que.size() > 0) {
+            int u = que.removeFirst();
+            dist[u] = NEG_INF;
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
+                if (onCycle[v]) continue;
+                onCycle[v] = true;
+                que.addLast(v);
+            }
+        }
+    }
+
     public java.util.ArrayList<Edg> path(int t) {
+        if (prev == null) throw new UnsupportedOperationException();
         if (dist[t] == UNREACHABLE || dist[t] == NEG_INF) return null;
         java.util.ArrayList<Edg> path = new java.util.ArrayList<>();
         for (int v = t; v != s; v = prev.get(v).from) {
@@ -68,6 +235,28 @@ class BellmanFord<Edg extends AbstractEdge> {
         return path;
     }
 
+    /**
+     * {@code CSRGraph} から構築した場合に，s から t への最短路に含まれる辺の辺番号を順に並べた配列を返す．
+     */
+    public int[] pathIds(int t) {
+        if (prevEdge == null) throw new UnsupportedOperationException();
+        if (dist[t] == UNREACHABLE || dist[t] == NEG_INF) return null;
+        int m = 0;
+        for (int v = t; v != s; v = prevVertex[v]) m++;
+        int[] path = new int[m];
+        for (int v = t; v != s; v = prevVertex[v]) {
+            path[--m] = prevEdge[v];
+        }
+        return path;
+    }
+
+    /**
+     * {@code CSRGraph} から構築した場合に，各頂点の最短路木における親への辺の辺番号 (存在しなければ -1) を返す．
+     */
+    public int[] prevEdges() {
+        return prevEdge;
+    }
+
     public long[] distances() {
         return dist;
     }
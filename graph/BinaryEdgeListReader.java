@@ -0,0 +1,156 @@
+package graph;
+/**
+ * 辺 1 本を 16 byte のレコード ({@code int from, int to, long cost}) とするバイナリの辺リストを，
+ * {@code FileChannel.map} でメモリマップして {@code CSRGraph} を直接構築する．辺のオブジェクトは作らない．
+ * 1 つのマッピングは 2GB 未満に制限されるので，ファイルは {@code CHUNK_BYTES} ごとに分けてマップする．
+ *
+ * 構築は次数の計数と辺の配置の 2 パスで行い，{@code ForkJoinPool} を渡した場合はレコードを区間に分けて並列に処理する．
+ * 並列の場合，各頂点の辺の並びは不定になる (辺番号はファイル中のレコードの添字のまま)．
+ */
+class BinaryEdgeListReader {
+    private static final java.lang.invoke.VarHandle INT = java.lang.invoke.MethodHandles.arrayElementVarHandle(int[].class);
+
+    public static final int RECORD_BYTES = 16;
+
+    /**
+     * 1 つのマッピングの大きさ．{@code RECORD_BYTES} の倍数である．
+     */
+    public static final long CHUNK_BYTES = 1l << 30;
+
+    private static final int CHUNK_RECORDS = (int) (CHUNK_BYTES / RECORD_BYTES);
+
+    /**
+     * 並列化の単位となるレコードの数．{@code CHUNK_RECORDS} の約数なので，区間がマッピングの境界をまたぐことはない．
+     */
+    private static final int BLOCK_RECORDS = 1 << 16;
+
+    private final long m;
+    private final java.nio.MappedByteBuffer[] chunks;
+
+    public BinaryEdgeListReader(java.nio.file.Path path) throws java.io.IOException {
+        this(path, java.nio.ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * @param order レコードのバイト順．{@code DataOutputStream} で書き出したファイルは {@code BIG_ENDIAN}．
+     */
+    public BinaryEdgeListReader(java.nio.file.Path path, java.nio.ByteOrder order) throws java.io.IOException {
+        try (java.nio.channels.FileChannel ch = java.nio.channels.FileChannel.open(path, java.nio.file.StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size % RECORD_BYTES != 0) {
+                throw new IllegalArgumentException(
+                    String.format("File size %d is not a multiple of %d.", size, RECORD_BYTES)
+                );
+            }
+            this.m = size / RECORD_BYTES;
+            int chunkNum = (int) ((size + CHUNK_BYTES - 1) / CHUNK_BYTES);
+            this.chunks = new java.nio.MappedByteBuffer[chunkNum];
+            for (int i = 0; i < chunkNum; i++) {
+                long pos = i * CHUNK_BYTES;
+                chunks[i] = ch.map(java.nio.channels.FileChannel.MapMode.READ_ONLY, pos, Math.min(CHUNK_BYTES, size - pos));
+                chunks[i].order(order);
+            }
+        }
+    }
+
+    /**
+     * ファイル中の辺の数．
+     */
+    public long getE() {
+        return m;
+    }
+
+    /**
+     * 逐次に {@code CSRGraph} を構築する．各頂点の辺の並びはファイル中の順序と一致し，
+     * {@code CSRGraph(n, from, to, cost, directed)} で構築した場合と同じグラフになる．
+     */
+    public CSRGraph toCSRGraph(int n, boolean directed) {
+        return toCSRGraph(n, directed, null);
+    }
+
+    /**
+     * {@code pool} 上で並列に {@code CSRGraph} を構築する．{@code pool} が {@code null} の場合は逐次に処理する．
+     */
+    public CSRGraph toCSRGraph(int n, boolean directed, java.util.concurrent.ForkJoinPool pool) {
+        long slots = directed ? m : 2 * m;
+        if (slots > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                String.format("%d edge slots do not fit in arrays.", slots)
+            );
+        }
+        int[] start = new int[n + 1];
+        // 1 パス目: 各頂点の次数を start[u + 1] に数える．
+        forEachBlock(pool, (buf, off, len, base) -> {
+            for (int i = 0; i < len; i++) {
+                int p = off + i * RECORD_BYTES;
+                int u = buf.getInt(p), v = buf.getInt(p + 4);
+                rangeCheck(u, 0, n);
+                rangeCheck(v, 0, n);
+                if (pool == null) {
+                    start[u + 1]++;
+                    if (!directed) start[v + 1]++;
+                } else {
+                    INT.getAndAdd(start, u + 1, 1);
+                    if (!directed) INT.getAndAdd(start, v + 1, 1);
+                }
+            }
+        });
+        for (int u = 0; u < n; u++) {
+            start[u + 1] += start[u];
+        }
+        int[] to = new int[(int) slots];
+        long[] cost = new long[(int) slots];
+        int[] id = new int[(int) slots];
+        int[] idx = java.util.Arrays.copyOf(start, n);
+        // 2 パス目: 辺を各頂点の slot に配置する．
+        forEachBlock(pool, (buf, off, len, base) -> {
+            for (int i = 0; i < len; i++) {
+                int p = off + i * RECORD_BYTES;
+                int u = buf.getInt(p), v = buf.getInt(p + 4);
+                long c = buf.getLong(p + 8);
+                int e = base + i;
+                int k = pool == null ? idx[u]++ : (int) INT.getAndAdd(idx, u, 1);
+                to[k] = v;
+                cost[k] = c;
+                id[k] = e;
+                if (directed) continue;
+                k = pool == null ? idx[v]++ : (int) INT.getAndAdd(idx, v, 1);
+                to[k] = u;
+                cost[k] = c;
+                id[k] = e;
+            }
+        });
+        return new CSRGraph(n, (int) m, directed, start, to, cost, id);
+    }
+
+    @FunctionalInterface
+    private static interface BlockConsumer {
+        /**
+         * {@code buf} の byte 位置 {@code off} から始まる {@code len} 個のレコードを処理する．先頭のレコードの辺番号は {@code base}．
+         */
+        public void accept(java.nio.ByteBuffer buf, int off, int len, int base);
+    }
+
+    private void forEachBlock(java.util.concurrent.ForkJoinPool pool, BlockConsumer f) {
+        int blockNum = (int) ((m + BLOCK_RECORDS - 1) / BLOCK_RECORDS);
+        java.util.function.IntConsumer task = b -> {
+            long first = (long) b * BLOCK_RECORDS;
+            int len = (int) Math.min(BLOCK_RECORDS, m - first);
+            java.nio.ByteBuffer buf = chunks[(int) (first / CHUNK_RECORDS)];
+            f.accept(buf, (int) (first % CHUNK_RECORDS) * RECORD_BYTES, len, (int) first);
+        };
+        if (pool == null || blockNum < 2) {
+            for (int b = 0; b < blockNum; b++) task.accept(b);
+        } else {
+            pool.submit(() -> java.util.stream.IntStream.range(0, blockNum).parallel().forEach(task)).join();
+        }
+    }
+
+    private static void rangeCheck(int i, int minInlusive, int maxExclusive) {
+        if (i < 0 || i >= maxExclusive) {
+            throw new IndexOutOfBoundsException(
+                String.format("Index %d out of bounds for length %d", i, maxExclusive)
+            );
+        }
+    }
+}
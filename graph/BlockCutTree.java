@@ -0,0 +1,106 @@
+package graph;
+/**
+ * 無向グラフの Block-Cut 木を {@code tree.Tree} として構築する．頂点 v をそのまま木の頂点 v とし，
+ * i 番目の二重頂点連結成分 (ブロック) を木の頂点 V+i として，各ブロックとそれに含まれる頂点を辺で結ぶ．
+ * 関節点はちょうど 2 つ以上のブロックに隣接する頂点である．{@code LowLink} の Ord，Low，Par から
+ * 頂点を行きがけ順に見てブロックを割り当てるので，リストやボックス化した値は作らない．計算量は &Theta;(E+V)．
+ */
+class BlockCutTree {
+    private final int n;
+    private final int blockNum;
+    private final int[] blockStart;
+    private final int[] blockVertices;
+    private final tree.Tree tree;
+
+    public BlockCutTree(Graph<? extends AbstractEdge> g) {
+        this(new CSRGraph(g));
+    }
+
+    public BlockCutTree(CSRGraph g) {
+        if (g.directed) throw new UnsupportedOperationException("Block-cut tree requires an undirected graph.");
+        this.n = g.getV();
+        LowLink<AbstractEdge> lowLink = new LowLink<>(g);
+        int[] ord = lowLink.Ord, low = lowLink.Low, par = lowLink.Par;
+        int[] pre = new int[n];
+        int roots = 0;
+        for (int v = 0; v < n; v++) {
+            pre[ord[v]] = v;
+            if (par[v] < 0) roots++;
+        }
+        // block[v] は DFS 木の辺 (par[v], v) を含むブロック．ブロックは最初の子で作られる．
+        int[] block = new int[n];
+        int[] size = new int[n];
+        int num = 0;
+        for (int i = 0; i < n; i++) {
+            int v = pre[i], u = par[v];
+            if (u < 0) continue;
+            if (low[v] >= ord[u]) {
+                block[v] = num;
+                size[num++] = 2;
+            } else {
+                block[v] = block[u];
+                size[block[v]]++;
+            }
+        }
+        this.blockNum = num;
+        this.blockStart = new int[num + 1];
+        for (int b = 0; b < num; b++) {
+            blockStart[b + 1] = blockStart[b] + size[b];
+        }
+        this.blockVertices = new int[blockStart[num]];
+        int[] ptr = java.util.Arrays.copyOf(blockStart, num);
+        int[] deg = new int[n + num];
+        for (int i = 0; i < n; i++) {
+            int v = pre[i], u = par[v];
+            if (u < 0) continue;
+            int b = block[v];
+            if (ptr[b] == blockStart[b]) {
+                blockVertices[ptr[b]++] = u;
+                deg[u]++;
+            }
+            blockVertices[ptr[b]++] = v;
+            deg[v]++;
+        }
+        if (roots != 1) {
+            this.tree = null;
+            return;
+        }
+        int[][] adj = new int[n + num][];
+        for (int b = 0; b < num; b++) {
+            adj[n + b] = java.util.Arrays.copyOfRange(blockVertices, blockStart[b], blockStart[b + 1]);
+        }
+        for (int v = 0; v < n; v++) {
+            adj[v] = new int[deg[v]];
+        }
+        for (int b = 0; b < num; b++) {
+            for (int k = blockStart[b]; k < blockStart[b + 1]; k++) {
+                int v = blockVertices[k];
+                adj[v][--deg[v]] = n + b;
+            }
+        }
+        this.tree = new tree.Tree(n + num, 0, adj);
+    }
+
+    /**
+     * 頂点 0 を根とする Block-Cut 木．グラフが空または非連結の場合は {@code null}．
+     */
+    public tree.Tree getTree() {
+        return tree;
+    }
+
+    public int getBlockNum() {
+        return blockNum;
+    }
+
+    /**
+     * ブロック b の頂点は {@code getBlockVertices()} の {@code [blockStart[b], blockStart[b + 1])} の範囲にある．
+     * 孤立点はどのブロックにも含まれない．
+     */
+    public int[] getBlockStart() {
+        return blockStart;
+    }
+
+    public int[] getBlockVertices() {
+        return blockVertices;
+    }
+}
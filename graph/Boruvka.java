@@ -0,0 +1,194 @@
+package graph;
+/**
+ * Borůvka 法により最小全域木 (MST) を構築する．計算量は &Theta;(ElogV)．
+ * 各ラウンドでは，全ての成分について外に出る最小の辺を {@code ForkJoinPool} 上で並列に求め，それらを一斉に併合する．
+ * 成分ごとの最小の辺の更新は CAS で行う．コストが等しい辺は辺番号で比較するので，閉路ができることはない．
+ * 有向グラフが与えられた場合は，{@code Kruskal} と同様に辺の向きを無視する．
+ *
+ * 各ラウンドで全ての辺を走査するので，逐次では基数ソートを使う {@code Kruskal} より遅い．比較には {@code main} を使う．
+ */
+class Boruvka {
+    private static final java.lang.invoke.VarHandle BEST = java.lang.invoke.MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * 辺の数がこれ未満の場合は並列化せずに呼び出し元のスレッドで処理する．
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+
+    private final int n;
+    private final CSRGraph g;
+    private final java.util.concurrent.ForkJoinPool pool;
+    private final int[] dsu;
+    private final long cost;
+    private final int[] mstIds;
+    private int mstSize = 0;
+    private final boolean isConnected;
+
+    public Boruvka(CSRGraph g) {
+        this(g, java.util.concurrent.ForkJoinPool.commonPool());
+    }
+
+    public Boruvka(CSRGraph g, java.util.concurrent.ForkJoinPool pool) {
+        this.n = g.getV();
+        this.g = g;
+        this.pool = pool;
+        this.dsu = new int[n];
+        java.util.Arrays.fill(dsu, -1);
+        this.mstIds = new int[Math.max(n - 1, 0)];
+        this.cost = solve();
+        this.isConnected = mstSize == n - 1;
+    }
+
+    public boolean isConnected() {
+        return isConnected;
+    }
+
+    public java.util.OptionalLong cost() {
+        return isConnected ? java.util.OptionalLong.of(cost) : java.util.OptionalLong.empty();
+    }
+
+    /**
+     * 最小全域木の辺番号の列．
+     */
+    public int[] getMSTIds() {
+        return isConnected ? mstIds : null;
+    }
+
+    private long solve() {
+        int slots = g.to.length;
+        int[] from = new int[slots];
+        int num = 0;
+        for (int u = 0; u < n; u++) {
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                from[k] = u;
+                if (g.directed ? u != g.to[k] : u < g.to[k]) num++;
+            }
+        }
+        int[] cand = new int[num];
+        num = 0;
+        for (int k = 0; k < slots; k++) {
+            if (g.directed ? from[k] != g.to[k] : from[k] < g.to[k]) cand[num++] = k;
+        }
+        int[] comp = new int[n];
+        java.util.Arrays.setAll(comp, i -> i);
+        int[] best = new int[n];
+        long cost = 0;
+        final int candNum = num;
+        while (mstSize < n - 1) {
+            java.util.Arrays.fill(best, -1);
+            parallel(candNum, i -> {
+                int k = cand[i];
+                int cu = comp[from[k]], cv = comp[g.to[k]];
+                if (cu == cv) return;
+                offer(best, cu, k);
+                offer(best, cv, k);
+            });
+            boolean merged = false;
+            for (int c = 0; c < n; c++) {
+                int k = best[c];
+                if (k < 0) continue;
+                if (merge(from[k], g.to[k])) {
+                    mstIds[mstSize++] = g.id[k];
+                    cost += g.cost[k];
+                    merged = true;
+                }
+            }
+            if (!merged) break;
+            for (int v = 0; v < n; v++) {
+                leader(v);
+            }
+            parallel(n, v -> comp[v] = dsu[v] < 0 ? v : dsu[v]);
+        }
+        return cost;
+    }
+
+    /**
+     * 成分 c から出る辺の候補として辺 k を CAS で登録する．
+     */
+    private void offer(int[] best, int c, int k) {
+        while (true) {
+            int cur = (int) BEST.getVolatile(best, c);
+            if (cur >= 0 && !less(k, cur)) return;
+            if (BEST.compareAndSet(best, c, cur, k)) return;
+        }
+    }
+
+    /**
+     * コスト，辺番号の辞書順で比較する．
+     */
+    private boolean less(int k, int l) {
+        long ck = g.cost[k], cl = g.cost[l];
+        return ck != cl ? ck < cl : g.id[k] < g.id[l];
+    }
+
+    private void parallel(int taskNum, java.util.function.IntConsumer task) {
+        if (taskNum < SEQUENTIAL_THRESHOLD) {
+            for (int i = 0; i < taskNum; i++) task.accept(i);
+        } else {
+            pool.submit(() -> java.util.stream.IntStream.range(0, taskNum).parallel().forEach(task)).join();
+        }
+    }
+
+    private boolean merge(int x, int y) {
+        if ((x = leader(x)) == (y = leader(y))) return false;
+        if (dsu[y] < dsu[x]) {
+            dsu[y] += dsu[x];
+            dsu[x] = y;
+        } else {
+            dsu[x] += dsu[y];
+            dsu[y] = x;
+        }
+        return true;
+    }
+
+    private int leader(int x) {
+        return dsu[x] < 0 ? x : (dsu[x] = leader(dsu[x]));
+    }
+
+    /******* Usage *******/
+
+    /**
+     * E = 10^6, 10^7 の乱択グラフ上で，{@code ForkJoinPool} の並列度 p = 1, 2, 4, ..., (論理コア数) ごとの実行時間を
+     * {@code Kruskal} と比べる．
+     */
+    public static void main(String[] args) {
+        java.util.Random rnd = new java.util.Random(0);
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        final int reps = 3;
+        for (int m : new int[]{1000000, 10000000}) {
+            int n = m / 10;
+            int[] from = new int[m];
+            int[] to = new int[m];
+            long[] cost = new long[m];
+            for (int i = 0; i < m; i++) {
+                // 先頭の n-1 本でパスを作り，連結にする．
+                from[i] = i < n - 1 ? i : rnd.nextInt(n);
+                to[i] = i < n - 1 ? i + 1 : rnd.nextInt(n);
+                cost[i] = rnd.nextInt(1000000000);
+            }
+            CSRGraph g = new CSRGraph(n, from, to, cost, false);
+            long best = Long.MAX_VALUE;
+            long expected = 0;
+            for (int rep = 0; rep < reps; rep++) {
+                long t = System.nanoTime();
+                expected = new Kruskal<AbstractEdge>(g).cost().getAsLong();
+                best = Math.min(best, System.nanoTime() - t);
+            }
+            System.out.printf("V=%d E=%d%n", n, m);
+            System.out.printf("Kruskal        %8d ms%n", best / 1000000);
+            for (int p = 1; p <= maxThreads; p = p < maxThreads && p << 1 > maxThreads ? maxThreads : p << 1) {
+                java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(p);
+                best = Long.MAX_VALUE;
+                for (int rep = 0; rep < reps; rep++) {
+                    long t = System.nanoTime();
+                    long c = new Boruvka(g, pool).cost().getAsLong();
+                    best = Math.min(best, System.nanoTime() - t);
+                    if (c != expected) throw new AssertionError("Cost differs from Kruskal.");
+                }
+                pool.shutdown();
+                System.out.printf("Boruvka p=%-3d %8d ms%n", p, best / 1000000);
+                if (p == maxThreads) break;
+            }
+        }
+    }
+}
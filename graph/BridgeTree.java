@@ -0,0 +1,69 @@
+package graph;
+/**
+ * 無向グラフの二重辺連結成分を縮約した橋木 (bridge tree) を {@code tree.Tree} として構築する．
+ * 木の頂点 i は {@code BCC} の i 番目の成分で，木の辺は橋に対応する．DFS 木の辺のうち両端の成分が異なるものを辺とするので，
+ * 多重辺があっても木の辺が重複することはない．計算量は &Theta;(E+V)．
+ */
+class BridgeTree {
+    private final int[] ids;
+    private final int componentsNum;
+    private final tree.Tree tree;
+
+    public BridgeTree(Graph<? extends AbstractEdge> g) {
+        this(new CSRGraph(g));
+    }
+
+    public BridgeTree(CSRGraph g) {
+        if (g.directed) throw new UnsupportedOperationException("Bridge tree requires an undirected graph.");
+        int n = g.getV();
+        BCC bcc = new BCC(g);
+        this.ids = bcc.ids;
+        this.componentsNum = bcc.getComponentsNum();
+        int[] par = bcc.par;
+        int roots = 0;
+        int[] deg = new int[componentsNum];
+        for (int v = 0; v < n; v++) {
+            int u = par[v];
+            if (u < 0) {
+                roots++;
+            } else if (ids[u] != ids[v]) {
+                deg[ids[u]]++;
+                deg[ids[v]]++;
+            }
+        }
+        if (roots != 1) {
+            this.tree = null;
+            return;
+        }
+        int[][] adj = new int[componentsNum][];
+        for (int c = 0; c < componentsNum; c++) {
+            adj[c] = new int[deg[c]];
+        }
+        for (int v = 0; v < n; v++) {
+            int u = par[v];
+            if (u < 0 || ids[u] == ids[v]) continue;
+            int cu = ids[u], cv = ids[v];
+            adj[cu][--deg[cu]] = cv;
+            adj[cv][--deg[cv]] = cu;
+        }
+        this.tree = new tree.Tree(componentsNum, ids[0], adj);
+    }
+
+    /**
+     * 頂点 0 を含む成分を根とする橋木．グラフが空または非連結の場合は {@code null}．
+     */
+    public tree.Tree getTree() {
+        return tree;
+    }
+
+    public int getComponentsNum() {
+        return componentsNum;
+    }
+
+    /**
+     * 各頂点が属する成分の番号，すなわち橋木の頂点．
+     */
+    public int[] getIds() {
+        return ids;
+    }
+}
@@ -0,0 +1,115 @@
+package graph;
+/**
+ * 隣接リストを CSR (Compressed Sparse Row) 形式の primitive 配列で保持する，構築後に変更できないグラフ．
+ * 辺ごとにオブジェクトを生成しないので，辺数が多い場合は {@code AbstractGraph} よりもメモリ使用量・走査速度の面で有利．
+ *
+ * 頂点 u から出る辺は start[u] <= k < start[u + 1] を満たす slot k に格納され，
+ * 行き先 to[k]，重み cost[k]，元の辺番号 id[k] を持つ．無向グラフでは各辺が両端点の slot に 1 つずつ格納される．
+ */
+class CSRGraph {
+    final int n;
+    final int m;
+    final boolean directed;
+    final int[] start;
+    final int[] to;
+    final long[] cost;
+    final int[] id;
+
+    /**
+     * {@code Graph} または {@code Digraph} から構築する．各頂点の辺の並びは {@code g.getEdges(u)} と一致し，
+     * 辺番号は {@code g.getEdges()} における添字となる．
+     */
+    public CSRGraph(AbstractGraph<? extends AbstractEdge> g) {
+        this.n = g.getV();
+        this.m = g.getE();
+        this.directed = !(g instanceof Graph);
+        this.start = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            start[u + 1] = start[u] + g.deg(u);
+        }
+        this.to = new int[start[n]];
+        this.cost = new long[start[n]];
+        this.id = new int[start[n]];
+        for (int u = 0; u < n; u++) {
+            int k = start[u];
+            for (AbstractEdge e : g.getEdges(u)) {
+                to[k] = e.to;
+                cost[k++] = e.cost;
+            }
+        }
+        int[] idx = java.util.Arrays.copyOf(start, n);
+        int i = 0;
+        for (AbstractEdge e : g.getEdges()) {
+            id[idx[e.from]++] = i;
+            if (!directed) id[idx[e.to]++] = i;
+            i++;
+        }
+    }
+
+    /**
+     * 辺 i = (from[i], to[i], cost[i]) の列から構築する．{@code cost} が {@code null} の場合は全ての辺の重みを 1 とする．
+     */
+    public CSRGraph(int n, int[] from, int[] to, long[] cost, boolean directed) {
+        if (from.length != to.length || (cost != null && cost.length != from.length)) {
+            throw new IllegalArgumentException("Lengths of edge arrays differ.");
+        }
+        this.n = n;
+        this.m = from.length;
+        this.directed = directed;
+        this.start = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            start[from[i] + 1]++;
+            if (!directed) start[to[i] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            start[u + 1] += start[u];
+        }
+        this.to = new int[start[n]];
+        this.cost = new long[start[n]];
+        this.id = new int[start[n]];
+        int[] idx = java.util.Arrays.copyOf(start, n);
+        for (int i = 0; i < m; i++) {
+            int u = from[i], v = to[i];
+            long c = cost == null ? 1l : cost[i];
+            int k = idx[u]++;
+            this.to[k] = v;
+            this.cost[k] = c;
+            this.id[k] = i;
+            if (directed) continue;
+            k = idx[v]++;
+            this.to[k] = u;
+            this.cost[k] = c;
+            this.id[k] = i;
+        }
+    }
+
+    public CSRGraph(int n, int[] from, int[] to, boolean directed) {
+        this(n, from, to, null, directed);
+    }
+
+    CSRGraph(int n, int m, boolean directed, int[] start, int[] to, long[] cost, int[] id) {
+        this.n = n;
+        this.m = m;
+        this.directed = directed;
+        this.start = start;
+        this.to = to;
+        this.cost = cost;
+        this.id = id;
+    }
+
+    public int deg(int u) {
+        return start[u + 1] - start[u];
+    }
+
+    public int getV() {
+        return n;
+    }
+
+    public int getE() {
+        return m;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+}
@@ -0,0 +1,267 @@
+package graph;
+/**
+ * 容量スケーリング法により最小費用流問題を解く．容量の最大値を U として計算量は &Theta;(E logU (E+V) logV) で，
+ * 流量に依存しないので容量が大きい場合でも高速に動作する．
+ *
+ * 流量 F は先に {@code MaxFlow} で求め，s に F，t に -F の需要を置いた b-flow として解く．
+ * コストが負の辺は最初に飽和させてから逆辺で打ち消す形で扱うので，負辺や負閉路があってもよい
+ * (負閉路は飽和させた状態が最適になる)．
+ * 構築時に入力の各辺の {@code rev} を書き換え，{@code getFlow} はそれを使って流量を求める．
+ */
+class CapacityScalingMinCostFlow {
+    private static final long INF = Long.MAX_VALUE;
+
+    private final Digraph<? extends CapEdge> dig;
+    private final MaxFlow maxFlow;
+    private final int n;
+    /**
+     * 残余グラフの持ち方は {@code MinCostFlow} と同じ．
+     */
+    private final int[] start;
+    private final int[] to;
+    private final int[] rev;
+    private final long[] cap;
+    private final long[] cost;
+    private final long[] limit;
+
+    private final long[] excess;
+    private final long[] potential;
+    private final long[] dist;
+    private final int[] prev;
+    private final ints.collection.IntIndexedPriorityQueue pq;
+
+    public CapacityScalingMinCostFlow(Digraph<? extends CapEdge> capDigraph) {
+        this.dig = capDigraph;
+        this.maxFlow = new MaxFlow(capDigraph);
+        this.n = capDigraph.getV();
+        this.start = new int[n + 1];
+        int m = capDigraph.getE();
+        for (CapEdge e : capDigraph.getEdges()) {
+            start[e.from + 1]++;
+            start[e.to + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            start[i + 1] += start[i];
+        }
+        this.to = new int[2 * m];
+        this.rev = new int[2 * m];
+        this.cap = new long[2 * m];
+        this.cost = new long[2 * m];
+        this.limit = new long[2 * m];
+        int[] idx = new int[n];
+        for (int i = 0; i < n; i++) {
+            idx[i] = start[i] + capDigraph.deg(i);
+        }
+        for (int u = 0; u < n; u++) {
+            int k = capDigraph.deg(u);
+            for (int i = 0; i < k; i++) {
+                CapEdge e = capDigraph.getEdge(u, i);
+                int v = e.to;
+                int f = start[u] + i, r = idx[v]++;
+                e.rev = r - start[v];
+                to[f] = v;
+                to[r] = u;
+                rev[f] = r;
+                rev[r] = f;
+                limit[f] = e.cap;
+                cost[f] = e.cost;
+                cost[r] = -e.cost;
+            }
+        }
+        this.excess = new long[n];
+        this.potential = new long[n];
+        this.dist = new long[n];
+        this.prev = new int[n];
+        this.pq = new ints.collection.IntIndexedPriorityQueue(n);
+    }
+
+    public long getFlow(CapEdge e) {
+        return cap[start[e.to] + e.rev];
+    }
+
+    public long[] minCostMaxFlow(int s, int t) {
+        return minCostFlow(s, t, INF);
+    }
+
+    /**
+     * s から t へ流量 min(flowLimit, 最大流) のフローを流すときの最小費用を求める．毎回最初から計算する．
+     * @return {流量, 費用}
+     */
+    public long[] minCostFlow(int s, int t, long flowLimit) {
+        rangeCheck(s, 0, n);
+        rangeCheck(t, 0, n);
+        if (s == t) {
+            throw new IllegalArgumentException(String.format("s = t = %d", s));
+        }
+        nonNegativeCheck(flowLimit, "Flow");
+        long flow = maxFlow.flow(s, t, flowLimit);
+        // 最適解の中には，各辺の流量が F と負辺の容量の総和の和以下のものが存在するので，容量をその値で抑える．
+        long bound = flow;
+        for (int k = 0; k < cap.length; k++) {
+            if (cost[k] < 0 && limit[k] > 0) bound = saturatedAdd(bound, limit[k]);
+        }
+        long maxCap = Math.max(flow, 1);
+        for (int k = 0; k < cap.length; k++) {
+            cap[k] = Math.min(limit[k], bound);
+            maxCap = Math.max(maxCap, cap[k]);
+        }
+        java.util.Arrays.fill(excess, 0);
+        java.util.Arrays.fill(potential, 0);
+        excess[s] = flow;
+        excess[t] = -flow;
+        for (long delta = Long.highestOneBit(maxCap); delta > 0; delta >>= 1) {
+            saturateNegative(delta);
+            while (augment(delta));
+        }
+        long totalCost = 0;
+        for (CapEdge e : dig.getEdges()) {
+            totalCost += getFlow(e) * e.cost;
+        }
+        return new long[]{flow, totalCost};
+    }
+
+    /**
+     * 残余容量が delta 以上で，ポテンシャルで補正したコストが負の辺を飽和させる．
+     */
+    private void saturateNegative(long delta) {
+        for (int u = 0; u < n; u++) {
+            for (int k = start[u]; k < start[u + 1]; k++) {
+                long c = cap[k];
+                if (c < delta || cost[k] + potential[u] - potential[to[k]] >= 0) continue;
+                cap[k] = 0;
+                cap[rev[k]] += c;
+                excess[u] -= c;
+                excess[to[k]] += c;
+            }
+        }
+    }
+
+    /**
+     * 超過が delta 以上の全頂点を始点とし，残余容量が delta 以上の辺のみを使ってダイクストラ法を行う．
+     * 最初に確定した不足が delta 以上の頂点までの最短路に delta の倍数で流せるだけ流し，ポテンシャルに min(dist[v], D) を加える．
+     * @return 流せた場合は {@code true}
+     */
+    private boolean augment(long delta) {
+        java.util.Arrays.fill(dist, INF);
+        for (int v = 0; v < n; v++) {
+            if (excess[v] >= delta) {
+                dist[v] = 0;
+                prev[v] = -1;
+                pq.add(v, 0l);
+            }
+        }
+        int sink = -1;
+        while (pq.size() > 0) {
+            int u = pq.removeFirst();
+            if (excess[u] <= -delta) {
+                sink = u;
+                break;
+            }
+            long du = dist[u] + potential[u];
+            for (int k = start[u]; k < start[u + 1]; k++) {
+                if (cap[k] < delta) continue;
+                int v = to[k];
+                long d = du + cost[k] - potential[v];
+                if (d < dist[v]) {
+                    dist[v] = d;
+                    prev[v] = k;
+                    pq.update(v, d);
+                }
+            }
+        }
+        pq.clear();
+        if (sink < 0) return false;
+        long dt = dist[sink];
+        for (int v = 0; v < n; v++) {
+            potential[v] += Math.min(dist[v], dt);
+        }
+        long f = -excess[sink];
+        int v = sink;
+        for (int k; (k = prev[v]) >= 0; v = to[rev[k]]) {
+            f = Math.min(f, cap[k]);
+        }
+        f = Math.min(f, excess[v]);
+        f -= f % delta;
+        excess[v] -= f;
+        excess[sink] += f;
+        for (v = sink; prev[v] >= 0; v = to[rev[prev[v]]]) {
+            cap[prev[v]] -= f;
+            cap[rev[prev[v]]] += f;
+        }
+        return true;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        return a > INF - b ? INF : a + b;
+    }
+
+    private void rangeCheck(int i, int minInlusive, int maxExclusive) {
+        if (i < 0 || i >= maxExclusive) {
+            throw new IndexOutOfBoundsException(
+                String.format("Index %d out of bounds for length %d", i, maxExclusive)
+            );
+        }
+    }
+
+    private void nonNegativeCheck(long cap, java.lang.String attribute) {
+        if (cap < 0) {
+            throw new IllegalArgumentException(
+                String.format("%s %d is negative.", attribute, cap)
+            );
+        }
+    }
+
+    /******* Usage *******/
+
+    /**
+     * 供給点 K 個，需要点 K 個の乱択の輸送問題で {@code MinCostFlow} と実行時間を比べる．時間は残余グラフの構築を含む．
+     */
+    public static void main(String[] args) {
+        java.util.Random rnd = new java.util.Random(0);
+        final int reps = 3;
+        for (int k : new int[]{50, 100, 200}) {
+            int n = 2 * k + 2, s = 2 * k, t = 2 * k + 1;
+            long[] supply = new long[k];
+            long[] demand = new long[k];
+            long total = 0;
+            for (int i = 0; i < k; i++) {
+                supply[i] = 1 + rnd.nextInt(1000000);
+                total += supply[i];
+            }
+            // 総需要を総供給に合わせる．
+            long rest = total;
+            for (int j = 0; j < k; j++) {
+                demand[j] = j == k - 1 ? rest : Math.min(rest, 1 + rnd.nextInt((int) (2 * total / k)));
+                rest -= demand[j];
+            }
+            long[] cost = new long[k * k];
+            for (int i = 0; i < k * k; i++) {
+                cost[i] = 1 + rnd.nextInt(1000);
+            }
+            long bestSSP = Long.MAX_VALUE, bestScaling = Long.MAX_VALUE;
+            for (int rep = 0; rep < reps; rep++) {
+                Digraph<CapEdge> g1 = new Digraph<>(n);
+                Digraph<CapEdge> g2 = new Digraph<>(n);
+                for (int i = 0; i < k; i++) {
+                    g1.addEdge(new CapEdge(s, i, supply[i], 0));
+                    g2.addEdge(new CapEdge(s, i, supply[i], 0));
+                    g1.addEdge(new CapEdge(k + i, t, demand[i], 0));
+                    g2.addEdge(new CapEdge(k + i, t, demand[i], 0));
+                    for (int j = 0; j < k; j++) {
+                        g1.addEdge(new CapEdge(i, k + j, total, cost[i * k + j]));
+                        g2.addEdge(new CapEdge(i, k + j, total, cost[i * k + j]));
+                    }
+                }
+                long t0 = System.nanoTime();
+                long[] expected = new MinCostFlow(g1).minCostFlow(s, t, total);
+                long t1 = System.nanoTime();
+                long[] res = new CapacityScalingMinCostFlow(g2).minCostFlow(s, t, total);
+                long t2 = System.nanoTime();
+                if (!java.util.Arrays.equals(res, expected)) throw new AssertionError("Cost differs from MinCostFlow.");
+                bestSSP = Math.min(bestSSP, t1 - t0);
+                bestScaling = Math.min(bestScaling, t2 - t1);
+            }
+            System.out.printf("K=%-4d E=%-6d MinCostFlow %6d ms  CapacityScaling %6d ms%n", k, k * k + 2 * k, bestSSP / 1000000, bestScaling / 1000000);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package graph;
+/**
+ * Delta-Stepping 法により単一始点最短経路問題を並列に解く．辺の重みは非負でなければならない．
+ * 距離を幅 delta のバケットに分け，先頭のバケットについて重み delta 以下の軽い辺の緩和を確定するまで繰り返した後，
+ * 重い辺を一度だけ緩和する．各段階の緩和は {@code ForkJoinPool} 上で並列に行い，距離の更新は CAS で行う．
+ *
+ * delta を小さくすると Dijkstra 法に近づき (並列度が下がる)，大きくすると Bellman-Ford 法に近づく (無駄な緩和が増える)．
+ * 目安は平均的な辺の重み程度．
+ */
+class DeltaStepping {
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private static final java.lang.invoke.VarHandle DIST = java.lang.invoke.MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * frontier の大きさがこれ未満の場合は並列化せずに呼び出し元のスレッドで処理する．
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 10;
+
+    private static final int MAX_BUCKET_NUM = 1 << 26;
+
+    private final CSRGraph g;
+    private final int n;
+    private final int s;
+    private final long delta;
+    private final long[] dist;
+    private final java.util.concurrent.ForkJoinPool pool;
+
+    private final int[][] bucket;
+    private final int[] bucketSize;
+    private int[] out;
+    private final java.util.concurrent.atomic.AtomicInteger outSize = new java.util.concurrent.atomic.AtomicInteger();
+
+    public DeltaStepping(CSRGraph g, int s, long delta) {
+        this(g, s, delta, java.util.concurrent.ForkJoinPool.commonPool());
+    }
+
+    public DeltaStepping(CSRGraph g, int s, long delta, java.util.concurrent.ForkJoinPool pool) {
+        if (delta <= 0) {
+            throw new IllegalArgumentException(
+                String.format("Delta %d is not positive.", delta)
+            );
+        }
+        long maxCost = 0;
+        for (long c : g.cost) {
+            if (c < 0) throw new AssertionError("Negative cost.");
+            maxCost = Math.max(maxCost, c);
+        }
+        if (maxCost / delta + 2 > MAX_BUCKET_NUM) {
+            throw new IllegalArgumentException(
+                String.format("Delta %d is too small for max cost %d.", delta, maxCost)
+            );
+        }
+        this.g = g;
+        this.n = g.getV();
+        this.s = s;
+        this.delta = delta;
+        this.dist = new long[n];
+        this.pool = pool;
+        int bucketNum = (int) (maxCost / delta + 2);
+        this.bucket = new int[bucketNum][];
+        this.bucketSize = new int[bucketNum];
+        this.out = new int[16];
+        solve();
+    }
+
+    private void solve() {
+        java.util.Arrays.fill(dist, UNREACHABLE);
+        dist[s] = 0;
+        final int bucketNum = bucket.length;
+        int[] front = new int[16];
+        int[] settled = new int[16];
+        int[] frontStamp = new int[n];
+        int[] settledStamp = new int[n];
+        int stamp = 0;
+        push(s, bucketNum);
+        int pending = 1;
+        for (long cur = 0; pending > 0; cur++) {
+            int b = (int) (cur % bucketNum);
+            if (bucketSize[b] == 0) continue;
+            int settledNum = 0;
+            final int bucketStamp = ++stamp;
+            while (bucketSize[b] > 0) {
+                int frontNum = 0;
+                final int iterStamp = ++stamp;
+                pending -= bucketSize[b];
+                for (int i = 0; i < bucketSize[b]; i++) {
+                    int v = bucket[b][i];
+                    if (dist[v] / delta != cur || frontStamp[v] == iterStamp) continue;
+                    frontStamp[v] = iterStamp;
+                    if (frontNum == front.length) front = java.util.Arrays.copyOf(front, frontNum << 1);
+                    front[frontNum++] = v;
+                    if (settledStamp[v] != bucketStamp) {
+                        settledStamp[v] = bucketStamp;
+                        if (settledNum == settled.length) settled = java.util.Arrays.copyOf(settled, settledNum << 1);
+                        settled[settledNum++] = v;
+                    }
+                }
+                bucketSize[b] = 0;
+                relaxAll(front, frontNum, true);
+                pending += flush(bucketNum);
+            }
+            relaxAll(settled, settledNum, false);
+            pending += flush(bucketNum);
+        }
+    }
+
+    /**
+     * {@code vs} の先頭 {@code num} 個の頂点から出る軽い辺 (light = true) または重い辺 (light = false) を緩和する．
+     * 距離が更新された頂点は {@code out} に記録される．
+     */
+    private void relaxAll(int[] vs, int num, boolean light) {
+        long edgeNum = 0;
+        for (int i = 0; i < num; i++) {
+            edgeNum += g.deg(vs[i]);
+        }
+        if (edgeNum > out.length) {
+            out = new int[(int) Math.min(Math.max(edgeNum, out.length << 1), Integer.MAX_VALUE - 8)];
+        }
+        outSize.set(0);
+        if (num < SEQUENTIAL_THRESHOLD) {
+            for (int i = 0; i < num; i++) scan(vs[i], light);
+        } else {
+            pool.submit(() -> java.util.stream.IntStream.range(0, num).parallel().forEach(i -> scan(vs[i], light))).join();
+        }
+    }
+
+    private void scan(int u, boolean light) {
+        long du = (long) DIST.getVolatile(dist, u);
+        for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+            long c = g.cost[k];
+            if ((c <= delta) != light) continue;
+            int v = g.to[k];
+            long d = du + c;
+            long old;
+            while (d < (old = (long) DIST.getVolatile(dist, v))) {
+                if (DIST.compareAndSet(dist, v, old, d)) {
+                    out[outSize.getAndIncrement()] = v;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code out} に記録された頂点を現在の距離に応じたバケットに入れ，入れた個数を返す．
+     */
+    private int flush(int bucketNum) {
+        int num = outSize.get();
+        for (int i = 0; i < num; i++) {
+            push(out[i], bucketNum);
+        }
+        return num;
+    }
+
+    private void push(int v, int bucketNum) {
+        int b = (int) (dist[v] / delta % bucketNum);
+        if (bucket[b] == null) {
+            bucket[b] = new int[4];
+        } else if (bucketSize[b] == bucket[b].length) {
+            bucket[b] = java.util.Arrays.copyOf(bucket[b], bucketSize[b] << 1);
+        }
+        bucket[b][bucketSize[b]++] = v;
+    }
+
+    public long[] distances() {
+        return dist;
+    }
+
+    public long distance(int i) {
+        return dist[i];
+    }
+
+    public boolean isReachable(int t) {
+        return dist[t] != UNREACHABLE;
+    }
+
+    /******* Usage *******/
+
+    /**
+     * 乱択グラフ上で，{@code ForkJoinPool} の並列度 p = 1, 2, 4, ..., (論理コア数) ごとの実行時間を {@code Dijkstra} と比べる．
+     * 引数は順に頂点数，辺数，delta (省略可)．
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 10000000;
+        long delta = args.length > 2 ? Long.parseLong(args[2]) : 100000;
+        java.util.Random rnd = new java.util.Random(0);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        long[] cost = new long[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = rnd.nextInt(n);
+            to[i] = rnd.nextInt(n);
+            cost[i] = rnd.nextInt(1000000);
+        }
+        CSRGraph g = new CSRGraph(n, from, to, cost, true);
+        final int reps = 3;
+        long best = Long.MAX_VALUE;
+        long[] expected = null;
+        for (int rep = 0; rep < reps; rep++) {
+            long t = System.nanoTime();
+            expected = new Dijkstra<AbstractEdge>(g, 0).distances();
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        System.out.printf("V=%d E=%d delta=%d%n", n, m, delta);
+        System.out.printf("Dijkstra          %8d ms%n", best / 1000000);
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p <= maxThreads; p = p < maxThreads && p << 1 > maxThreads ? maxThreads : p << 1) {
+            java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(p);
+            best = Long.MAX_VALUE;
+            for (int rep = 0; rep < reps; rep++) {
+                long t = System.nanoTime();
+                long[] dist = new DeltaStepping(g, 0, delta, pool).distances();
+                best = Math.min(best, System.nanoTime() - t);
+                if (!java.util.Arrays.equals(dist, expected)) throw new AssertionError("Distances differ from Dijkstra.");
+            }
+            pool.shutdown();
+            System.out.printf("DeltaStepping p=%-3d%8d ms%n", p, best / 1000000);
+            if (p == maxThreads) break;
+        }
+    }
+}
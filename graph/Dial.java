@@ -0,0 +1,190 @@
+package graph;
+/**
+ * 辺の重みが 0 以上 C 以下の小さな整数である場合に，Dial のアルゴリズム (バケットキューを用いた Dijkstra 法) で
+ * 単一始点最短経路問題を解く．計算量は最大の距離を D として &Theta;(E+V+D)．
+ * C <= 1 の場合は {@code IntDeque} を用いた 0-1 BFS で解く．
+ */
+class Dial {
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final int n;
+    private final int s;
+    private final long[] dist;
+    private final int[] prevVertex;
+    private final int[] prevEdge;
+
+    public Dial(AbstractGraph<? extends AbstractEdge> g, int s) {
+        this(new CSRGraph(g), s);
+    }
+
+    public Dial(CSRGraph g, int s) {
+        this.n = g.getV();
+        this.s = s;
+        this.dist = new long[n];
+        this.prevVertex = new int[n];
+        this.prevEdge = new int[n];
+        long maxCost = 0;
+        for (long c : g.cost) {
+            if (c < 0) throw new AssertionError("Negative cost.");
+            maxCost = Math.max(maxCost, c);
+        }
+        if (maxCost >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                String.format("Cost %d is too large for bucket queue.", maxCost)
+            );
+        }
+        java.util.Arrays.fill(dist, UNREACHABLE);
+        java.util.Arrays.fill(prevVertex, -1);
+        java.util.Arrays.fill(prevEdge, -1);
+        dist[s] = 0;
+        if (maxCost <= 1) {
+            zeroOneBFS(g);
+        } else {
+            bucket(g, (int) maxCost + 1);
+        }
+    }
+
+    private void zeroOneBFS(CSRGraph g) {
+        boolean[] done = new boolean[n];
+        ints.collection.IntDeque dq = new ints.collection.IntDeque(n);
+        dq.addLast(s);
+        while (dq.size() > 0) {
+            int u = dq.removeFirst();
+            if (done[u]) continue;
+            done[u] = true;
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
+                long c = g.cost[k];
+                if (dist[u] + c < dist[v]) {
+                    dist[v] = dist[u] + c;
+                    prevVertex[v] = u;
+                    prevEdge[v] = g.id[k];
+                    if (c == 0) {
+                        dq.addFirst(v);
+                    } else {
+                        dq.addLast(v);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 距離を b で割った余りで分類した b 個のバケットを循環させる．各バケットは双方向連結リストで，
+     * 距離が更新された頂点は元のバケットから取り除いてから入れ直すので，各頂点は高々 1 つのバケットにのみ属する．
+     */
+    private void bucket(CSRGraph g, int b) {
+        int[] head = new int[b];
+        int[] next = new int[n];
+        int[] prev = new int[n];
+        boolean[] inBucket = new boolean[n];
+        java.util.Arrays.fill(head, -1);
+        head[0] = s;
+        next[s] = prev[s] = -1;
+        inBucket[s] = true;
+        int cnt = 1;
+        long cur = 0;
+        while (cnt > 0) {
+            int i = (int) (cur % b);
+            while (head[i] < 0) {
+                cur++;
+                if (++i == b) i = 0;
+            }
+            int u = head[i];
+            head[i] = next[u];
+            if (next[u] >= 0) prev[next[u]] = -1;
+            inBucket[u] = false;
+            cnt--;
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
+                long d = cur + g.cost[k];
+                if (d >= dist[v]) continue;
+                if (inBucket[v]) {
+                    if (prev[v] >= 0) {
+                        next[prev[v]] = next[v];
+                    } else {
+                        head[(int) (dist[v] % b)] = next[v];
+                    }
+                    if (next[v] >= 0) prev[next[v]] = prev[v];
+                    cnt--;
+                }
+                dist[v] = d;
+                prevVertex[v] = u;
+                prevEdge[v] = g.id[k];
+                int j = (int) (d % b);
+                prev[v] = -1;
+                next[v] = head[j];
+                if (head[j] >= 0) prev[head[j]] = v;
+                head[j] = v;
+                inBucket[v] = true;
+                cnt++;
+            }
+        }
+    }
+
+    public int[] pathIds(int t) {
+        if (dist[t] == UNREACHABLE) return null;
+        int m = 0;
+        for (int v = t; v != s; v = prevVertex[v]) m++;
+        int[] path = new int[m];
+        for (int v = t; v != s; v = prevVertex[v]) {
+            path[--m] = prevEdge[v];
+        }
+        return path;
+    }
+
+    public int[] prevEdges() {
+        return prevEdge;
+    }
+
+    public long[] distances() {
+        return dist;
+    }
+
+    public long distance(int i) {
+        return dist[i];
+    }
+
+    public boolean isReachable(int t) {
+        return dist[t] != UNREACHABLE;
+    }
+
+    /******* Usage *******/
+
+    /**
+     * 重みの最大値 C = 1, 10, 1000 の乱択グラフ上で {@code Dijkstra} と実行時間を比べる．C = 1 では 0-1 BFS が使われる．
+     * 引数は順に頂点数，辺数 (省略可)．
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 10000000;
+        java.util.Random rnd = new java.util.Random(0);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = rnd.nextInt(n);
+            to[i] = rnd.nextInt(n);
+        }
+        final int reps = 3;
+        System.out.printf("V=%d E=%d%n", n, m);
+        for (int maxCost : new int[]{1, 10, 1000}) {
+            long[] cost = new long[m];
+            for (int i = 0; i < m; i++) {
+                cost[i] = rnd.nextInt(maxCost + 1);
+            }
+            CSRGraph g = new CSRGraph(n, from, to, cost, true);
+            long bestDijkstra = Long.MAX_VALUE, bestDial = Long.MAX_VALUE;
+            for (int rep = 0; rep < reps; rep++) {
+                long t0 = System.nanoTime();
+                long[] expected = new Dijkstra<AbstractEdge>(g, 0).distances();
+                long t1 = System.nanoTime();
+                long[] dist = new Dial(g, 0).distances();
+                long t2 = System.nanoTime();
+                if (!java.util.Arrays.equals(dist, expected)) throw new AssertionError("Distances differ from Dijkstra.");
+                bestDijkstra = Math.min(bestDijkstra, t1 - t0);
+                bestDial = Math.min(bestDial, t2 - t1);
+            }
+            System.out.printf("C=%-5d Dijkstra %8d ms  Dial %8d ms%n", maxCost, bestDijkstra / 1000000, bestDial / 1000000);
+        }
+    }
+}
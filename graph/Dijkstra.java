@@ -19,6 +19,8 @@ class Dijkstra<Edg extends AbstractEdge> {
     private final int s;
     private final long[] dist;
     private final java.util.ArrayList<Edg> prev;
+    private final int[] prevVertex;
+    private final int[] prevEdge;
 
     public Dijkstra(AbstractGraph<Edg> g, int s) {
         this.n = g.getV();
@@ -28,6 +30,18 @@ class Dijkstra<Edg extends AbstractEdge> {
         for (int i = 0; i < n; i++) {
             prev.add(null);
         }
+        this.prevVertex = null;
+        this.prevEdge = null;
+        solve(g);
+    }
+
+    public Dijkstra(CSRGraph g, int s) {
+        this.n = g.getV();
+        this.s = s;
+        this.dist = new long[n];
+        this.prev = null;
+        this.prevVertex = new int[n];
+        this.prevEdge = new int[n];
         solve(g);
     }
 
@@ -53,7 +67,40 @@ class Dijkstra<Edg extends AbstractEdge> {
         }
     }
 
+    private void solve(CSRGraph g) {
+        solve(g, s, dist, prevVertex, prevEdge, new ints.collection.IntIndexedPriorityQueue(n));
+    }
+
+    /**
+     * 位置索引付きヒープを用いて s を始点とする最短距離を {@code dist} に書き込む．緩和 1 回あたりのメモリ確保は行わない．
+     * {@code prevVertex}，{@code prevEdge} は {@code null} でもよく，その場合は経路復元の情報を記録しない．
+     * {@code pq} は空である必要があり，終了時も空である．
+     */
+    static void solve(CSRGraph g, int s, long[] dist, int[] prevVertex, int[] prevEdge, ints.collection.IntIndexedPriorityQueue pq) {
+        java.util.Arrays.fill(dist, UNREACHABLE);
+        if (prevVertex != null) java.util.Arrays.fill(prevVertex, -1);
+        if (prevEdge != null) java.util.Arrays.fill(prevEdge, -1);
+        dist[s] = 0;
+        pq.add(s, 0l);
+        while (pq.size() > 0) {
+            int u = pq.removeFirst();
+            long du = dist[u];
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
+                long c = g.cost[k];
+                if (c < 0) throw new AssertionError("Negative cost.");
+                if (du + c < dist[v]) {
+                    dist[v] = du + c;
+                    if (prevVertex != null) prevVertex[v] = u;
+                    if (prevEdge != null) prevEdge[v] = g.id[k];
+                    pq.update(v, dist[v]);
+                }
+            }
+        }
+    }
+
     public java.util.ArrayList<Edg> path(int t) {
+        if (prev == null) throw new UnsupportedOperationException();
         if (dist[t] == UNREACHABLE) return null;
         java.util.ArrayList<Edg> path = new java.util.ArrayList<>();
         for (int v = t; v != s; v = prev.get(v).from) {
@@ -68,6 +115,28 @@ class Dijkstra<Edg extends AbstractEdge> {
         return path;
     }
 
+    /**
+     * {@code CSRGraph} から構築した場合に，s から t への最短路に含まれる辺の辺番号を順に並べた配列を返す．
+     */
+    public int[] pathIds(int t) {
+        if (prevEdge == null) throw new UnsupportedOperationException();
+        if (dist[t] == UNREACHABLE) return null;
+        int m = 0;
+        for (int v = t; v != s; v = prevVertex[v]) m++;
+        int[] path = new int[m];
+        for (int v = t; v != s; v = prevVertex[v]) {
+            path[--m] = prevEdge[v];
+        }
+        return path;
+    }
+
+    /**
+     * {@code CSRGraph} から構築した場合に，各頂点の最短路木における親への辺の辺番号 (存在しなければ -1) を返す．
+     */
+    public int[] prevEdges() {
+        return prevEdge;
+    }
+
     public long[] distances() {
         return dist;
     }
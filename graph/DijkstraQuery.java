@@ -0,0 +1,122 @@
+package graph;
+/**
+ * 一つのグラフに対して 2 点間の最短距離クエリを繰り返し処理する．t が確定した時点で探索を打ち切る．
+ * 作業用の配列はコンストラクタで一度だけ確保し，クエリ間では前回のクエリで値を書き込んだ頂点のみを初期化するので，
+ * 1 回のクエリにかかる時間は探索した範囲の大きさにのみ依存する．辺の重みは非負でなければならない．
+ */
+class DijkstraQuery {
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final CSRGraph g;
+    private final int n;
+    private final long[] distS;
+    private final long[] distT;
+    private final int[] touched;
+    private int touchedNum = 0;
+    private final ints.collection.IntIndexedPriorityQueue pqS;
+    private final ints.collection.IntIndexedPriorityQueue pqT;
+
+    public DijkstraQuery(AbstractGraph<? extends AbstractEdge> g) {
+        this(new CSRGraph(g));
+    }
+
+    public DijkstraQuery(CSRGraph g) {
+        for (long c : g.cost) {
+            if (c < 0) throw new AssertionError("Negative cost.");
+        }
+        this.g = g;
+        this.n = g.getV();
+        this.distS = new long[n];
+        this.distT = new long[n];
+        this.touched = new int[n];
+        this.pqS = new ints.collection.IntIndexedPriorityQueue(n);
+        this.pqT = new ints.collection.IntIndexedPriorityQueue(n);
+        java.util.Arrays.fill(distS, UNREACHABLE);
+        java.util.Arrays.fill(distT, UNREACHABLE);
+    }
+
+    /**
+     * s から t への最短距離を求める．t に到達できない場合は {@code UNREACHABLE} を返す．
+     */
+    public long distance(int s, int t) {
+        rangeCheck(s, 0, n);
+        rangeCheck(t, 0, n);
+        clear();
+        distS[s] = 0;
+        touched[touchedNum++] = s;
+        pqS.add(s, 0l);
+        while (pqS.size() > 0) {
+            int u = pqS.removeFirst();
+            if (u == t) break;
+            long du = distS[u];
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
+                long d = du + g.cost[k];
+                if (d < distS[v]) {
+                    if (distS[v] == UNREACHABLE) touched[touchedNum++] = v;
+                    distS[v] = d;
+                    pqS.update(v, d);
+                }
+            }
+        }
+        pqS.clear();
+        return distS[t];
+    }
+
+    /**
+     * s と t の両側から探索を行う双方向 Dijkstra 法により，s から t への最短距離を求める．
+     * 探索範囲は概ね片側探索の半径の半分で済む．無向グラフでのみ使用できる．
+     * t に到達できない場合は {@code UNREACHABLE} を返す．
+     */
+    public long bidirectionalDistance(int s, int t) {
+        if (g.directed) throw new UnsupportedOperationException("Bidirectional search requires an undirected graph.");
+        rangeCheck(s, 0, n);
+        rangeCheck(t, 0, n);
+        clear();
+        if (s == t) return 0;
+        distS[s] = 0;
+        distT[t] = 0;
+        touched[touchedNum++] = s;
+        touched[touchedNum++] = t;
+        pqS.add(s, 0l);
+        pqT.add(t, 0l);
+        long best = UNREACHABLE;
+        while (pqS.size() > 0 && pqT.size() > 0) {
+            if (best != UNREACHABLE && pqS.getFirstKey() + pqT.getFirstKey() >= best) break;
+            boolean forward = pqS.size() <= pqT.size();
+            ints.collection.IntIndexedPriorityQueue pq = forward ? pqS : pqT;
+            long[] dist = forward ? distS : distT;
+            long[] opp = forward ? distT : distS;
+            int u = pq.removeFirst();
+            long du = dist[u];
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
+                long d = du + g.cost[k];
+                if (d < dist[v]) {
+                    if (distS[v] == UNREACHABLE && distT[v] == UNREACHABLE) touched[touchedNum++] = v;
+                    dist[v] = d;
+                    pq.update(v, d);
+                }
+                if (opp[v] != UNREACHABLE) best = Math.min(best, d + opp[v]);
+            }
+        }
+        pqS.clear();
+        pqT.clear();
+        return best;
+    }
+
+    private void clear() {
+        while (touchedNum > 0) {
+            int v = touched[--touchedNum];
+            distS[v] = distT[v] = UNREACHABLE;
+        }
+    }
+
+    private void rangeCheck(int i, int minInlusive, int maxExclusive) {
+        if (i < 0 || i >= maxExclusive) {
+            throw new IndexOutOfBoundsException(
+                String.format("Index %d out of bounds for length %d", i, maxExclusive)
+            );
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package graph;
+/**
+ * 辺の重みを全て 1 とみなした単一始点最短経路を，Beamer らの direction-optimizing BFS により求める．
+ * frontier が小さい間は frontier の頂点から出る辺を走査する top-down で進め，frontier から出る辺の数が未訪問の頂点から出る辺の数に比べて
+ * 大きくなったら，未訪問の各頂点について入る辺を frontier に当たるまで走査する bottom-up に切り替える．
+ * bottom-up の frontier はビット集合で持つ．有向グラフの場合は bottom-up で使う逆辺のグラフを最初に切り替えるときに構築する．
+ *
+ * 大きな frontier の処理は {@code ForkJoinPool} 上で並列に行う．top-down では訪問済みの判定を CAS で，bottom-up では
+ * 64 頂点ごとにタスクを分けて行うので，距離は逐次の場合と一致するが，親は実行ごとに異なりうる．計算量は &Theta;(E+V)．
+ */
+class DirectionOptimizingBFS {
+    public static final int UNREACHABLE = -1;
+
+    private static final java.lang.invoke.VarHandle INT = java.lang.invoke.MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * frontier から出る辺の数が未訪問の頂点から出る辺の数の 1/ALPHA を超えたら bottom-up に切り替える．
+     */
+    private static final int ALPHA = 14;
+
+    /**
+     * bottom-up で frontier が縮小に転じ，V/BETA 未満になったら top-down に戻す．
+     */
+    private static final int BETA = 24;
+
+    /**
+     * 処理の量がこれ未満の場合は並列化せずに呼び出し元のスレッドで処理する．
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+
+    private final CSRGraph g;
+    private CSRGraph rg;
+    private final int n;
+    private final int s;
+    private final int[] dist;
+    private final int[] parent;
+    private final java.util.concurrent.ForkJoinPool pool;
+
+    public DirectionOptimizingBFS(CSRGraph g, int s) {
+        this(g, s, java.util.concurrent.ForkJoinPool.commonPool());
+    }
+
+    public DirectionOptimizingBFS(CSRGraph g, int s, java.util.concurrent.ForkJoinPool pool) {
+        this.g = g;
+        this.rg = g.directed ? null : g;
+        this.n = g.getV();
+        rangeCheck(s, 0, n);
+        this.s = s;
+        this.dist = new int[n];
+        this.parent = new int[n];
+        this.pool = pool;
+        solve();
+    }
+
+    private void solve() {
+        java.util.Arrays.fill(dist, UNREACHABLE);
+        java.util.Arrays.fill(parent, -1);
+        int words = (n + 63) >> 6;
+        int[] queue = new int[n];
+        int[] next = new int[n];
+        long[] bits = new long[words];
+        long[] nextBits = new long[words];
+        int[] tail = new int[1];
+        dist[s] = 0;
+        queue[0] = s;
+        int size = 1;
+        // mf は frontier から出る辺の数，mu は未訪問の頂点から出る辺の数 (bottom-up で走査する辺の数の目安)．
+        long mf = g.deg(s);
+        long mu = g.to.length - mf;
+        boolean bottomUp = false;
+        for (int d = 0; size > 0; d++) {
+            final int nd = d + 1;
+            if (!bottomUp && mf > mu / ALPHA) {
+                if (rg == null) rg = transpose(g);
+                bottomUp = true;
+                java.util.Arrays.fill(bits, 0);
+                for (int i = 0; i < size; i++) {
+                    bits[queue[i] >> 6] |= 1l << queue[i];
+                }
+            }
+            int prevSize = size;
+            if (bottomUp) {
+                final long[] cur = bits, nxt = nextBits;
+                parallel(words, n, w -> {
+                    long found = 0;
+                    int end = Math.min(n, (w + 1) << 6);
+                    for (int v = w << 6; v < end; v++) {
+                        if (dist[v] != UNREACHABLE) continue;
+                        for (int k = rg.start[v]; k < rg.start[v + 1]; k++) {
+                            int u = rg.to[k];
+                            if ((cur[u >> 6] >>> u & 1) != 0) {
+                                dist[v] = nd;
+                                parent[v] = u;
+                                found |= 1l << v;
+                                break;
+                            }
+                        }
+                    }
+                    nxt[w] = found;
+                });
+                bits = nxt;
+                nextBits = cur;
+                size = 0;
+                mf = 0;
+                for (int w = 0; w < words; w++) {
+                    for (long b = bits[w]; b != 0; b &= b - 1) {
+                        int v = w << 6 | Long.numberOfTrailingZeros(b);
+                        queue[size++] = v;
+                        mf += g.deg(v);
+                        mu -= g.deg(v);
+                    }
+                }
+                if (size < prevSize && size < n / BETA) bottomUp = false;
+            } else {
+                final int[] cur = queue, nxt = next;
+                final int curSize = size;
+                tail[0] = 0;
+                if (mf < SEQUENTIAL_THRESHOLD) {
+                    int num = 0;
+                    for (int i = 0; i < curSize; i++) {
+                        int u = cur[i];
+                        for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                            int v = g.to[k];
+                            if (dist[v] != UNREACHABLE) continue;
+                            dist[v] = nd;
+                            parent[v] = u;
+                            nxt[num++] = v;
+                        }
+                    }
+                    tail[0] = num;
+                } else {
+                    parallel(curSize, (int) Math.min(mf, Integer.MAX_VALUE), i -> {
+                        int u = cur[i];
+                        for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                            int v = g.to[k];
+                            if (dist[v] != UNREACHABLE || !INT.compareAndSet(dist, v, UNREACHABLE, nd)) continue;
+                            parent[v] = u;
+                            nxt[(int) INT.getAndAdd(tail, 0, 1)] = v;
+                        }
+                    });
+                }
+                queue = nxt;
+                next = cur;
+                size = tail[0];
+                mf = 0;
+                for (int i = 0; i < size; i++) {
+                    int v = queue[i];
+                    mf += g.deg(v);
+                    mu -= g.deg(v);
+                }
+            }
+        }
+    }
+
+    /**
+     * 全ての辺の向きを反転したグラフ．
+     */
+    private static CSRGraph transpose(CSRGraph g) {
+        int n = g.getV();
+        int[] start = new int[n + 1];
+        for (int v : g.to) {
+            start[v + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            start[u + 1] += start[u];
+        }
+        int slots = g.to.length;
+        int[] to = new int[slots];
+        long[] cost = new long[slots];
+        int[] id = new int[slots];
+        int[] idx = java.util.Arrays.copyOf(start, n);
+        for (int u = 0; u < n; u++) {
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int l = idx[g.to[k]]++;
+                to[l] = u;
+                cost[l] = g.cost[k];
+                id[l] = g.id[k];
+            }
+        }
+        return new CSRGraph(n, g.m, true, start, to, cost, id);
+    }
+
+    private void parallel(int taskNum, int work, java.util.function.IntConsumer task) {
+        if (work < SEQUENTIAL_THRESHOLD) {
+            for (int i = 0; i < taskNum; i++) task.accept(i);
+        } else {
+            pool.submit(() -> java.util.stream.IntStream.range(0, taskNum).parallel().forEach(task)).join();
+        }
+    }
+
+    /**
+     * 各頂点への辺の本数の最小値．到達不能な頂点は {@code UNREACHABLE}．
+     */
+    public int[] distances() {
+        return dist;
+    }
+
+    public int distance(int i) {
+        return dist[i];
+    }
+
+    public boolean isReachable(int t) {
+        return dist[t] != UNREACHABLE;
+    }
+
+    /**
+     * 最短経路木における各頂点の親．始点と到達不能な頂点は -1．
+     */
+    public int[] parents() {
+        return parent;
+    }
+
+    private void rangeCheck(int i, int minInlusive, int maxExclusive) {
+        if (i < 0 || i >= maxExclusive) {
+            throw new IndexOutOfBoundsException(
+                String.format("Index %d out of bounds for length %d", i, maxExclusive)
+            );
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package graph;
+/**
+ * ワーシャルフロイド法により密なグラフの全点対最短距離を求める．計算量は &Theta;(V^3)．
+ * 距離行列は u から v への距離を {@code [u * V + v]} に持つ一次元配列で表し，B×B のタイルに分割して計算する．
+ * 各ラウンドでは対角タイル，対角タイルと同じ行・列のタイル，残りのタイルの順に更新し，後ろ二つの段階では
+ * タイル同士が独立なので {@code ForkJoinPool} 上で並列に処理する．
+ *
+ * 負の重みの辺があってもよいが，負閉路が存在する場合は {@code hasNegativeCycle()} 以外の結果は不定．
+ */
+class FloydWarshall {
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    /**
+     * タイルの一辺．64×64 の {@code long} 行列は 32KiB で L1 キャッシュに収まる．
+     */
+    private static final int B = 64;
+
+    private final int n;
+    private final long[] dist;
+    private final int[] next;
+    private final int[] hops;
+    private final java.util.concurrent.ForkJoinPool pool;
+
+    public FloydWarshall(AbstractGraph<? extends AbstractEdge> g, boolean restorePath) {
+        this(new CSRGraph(g), restorePath);
+    }
+
+    public FloydWarshall(CSRGraph g, boolean restorePath) {
+        this(g.getV(), adjacencyMatrix(g), restorePath, java.util.concurrent.ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 隣接行列 {@code mat} から構築する．辺が無い場合は {@code UNREACHABLE} とする．{@code mat} は距離行列で上書きされる．
+     * @param restorePath 経路復元を行うなら {@code true}．V×V の {@code int} 配列を 2 つ追加で確保する．
+     */
+    public FloydWarshall(int n, long[] mat, boolean restorePath, java.util.concurrent.ForkJoinPool pool) {
+        if (mat.length != n * n) {
+            throw new IllegalArgumentException(
+                String.format("Matrix length %d is not %d * %d.", mat.length, n, n)
+            );
+        }
+        this.n = n;
+        this.dist = mat;
+        this.pool = pool;
+        for (int i = 0; i < n; i++) {
+            dist[i * n + i] = Math.min(dist[i * n + i], 0);
+        }
+        if (restorePath) {
+            this.next = new int[n * n];
+            this.hops = new int[n * n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    next[i * n + j] = dist[i * n + j] == UNREACHABLE ? -1 : j;
+                    hops[i * n + j] = i == j ? 0 : 1;
+                }
+            }
+        } else {
+            this.next = null;
+            this.hops = null;
+        }
+        solve();
+    }
+
+    private static long[] adjacencyMatrix(CSRGraph g) {
+        int n = g.getV();
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                String.format("Matrix for %d vertices is too large.", n)
+            );
+        }
+        long[] mat = new long[n * n];
+        java.util.Arrays.fill(mat, UNREACHABLE);
+        for (int u = 0; u < n; u++) {
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int i = u * n + g.to[k];
+                mat[i] = Math.min(mat[i], g.cost[k]);
+            }
+        }
+        return mat;
+    }
+
+    private void solve() {
+        final int bn = (n + B - 1) / B;
+        for (int kb = 0; kb < bn; kb++) {
+            final int k = kb;
+            update(k, k, k);
+            parallel(2 * bn, t -> {
+                int b = t >> 1;
+                if (b == k) return;
+                if ((t & 1) == 0) {
+                    update(k, b, k);
+                } else {
+                    update(b, k, k);
+                }
+            });
+            parallel(bn * bn, t -> {
+                int ib = t / bn, jb = t % bn;
+                if (ib == k || jb == k) return;
+                update(ib, jb, k);
+            });
+        }
+    }
+
+    private void parallel(int taskNum, java.util.function.IntConsumer task) {
+        if (taskNum <= 4) {
+            for (int t = 0; t < taskNum; t++) task.accept(t);
+        } else {
+            pool.submit(() -> java.util.stream.IntStream.range(0, taskNum).parallel().forEach(task)).join();
+        }
+    }
+
+    /**
+     * タイル (ib, jb) を，タイル kb に含まれる頂点を経由する経路で更新する．
+     */
+    private void update(int ib, int jb, int kb) {
+        int il = ib * B, ir = Math.min(il + B, n);
+        int jl = jb * B, jr = Math.min(jl + B, n);
+        int kl = kb * B, kr = Math.min(kl + B, n);
+        if (next != null) {
+            updateWithPath(il, ir, jl, jr, kl, kr);
+            return;
+        }
+        for (int k = kl; k < kr; k++) {
+            int kn = k * n;
+            for (int i = il; i < ir; i++) {
+                int in = i * n;
+                long dik = dist[in + k];
+                if (dik == UNREACHABLE) continue;
+                for (int j = jl; j < jr; j++) {
+                    long dkj = dist[kn + j];
+                    if (dkj == UNREACHABLE) continue;
+                    long d = dik + dkj;
+                    if (d < dist[in + j]) dist[in + j] = d;
+                }
+            }
+        }
+    }
+
+    /**
+     * 経路復元用の情報も更新する．距離が等しい場合は辺数が少ない方を優先することで，
+     * 重み 0 の閉路があっても next を辿る経路が閉路に陥らないようにする．
+     */
+    private void updateWithPath(int il, int ir, int jl, int jr, int kl, int kr) {
+        for (int k = kl; k < kr; k++) {
+            int kn = k * n;
+            for (int i = il; i < ir; i++) {
+                int in = i * n;
+                long dik = dist[in + k];
+                if (dik == UNREACHABLE) continue;
+                int hik = hops[in + k];
+                for (int j = jl; j < jr; j++) {
+                    long dkj = dist[kn + j];
+                    if (dkj == UNREACHABLE) continue;
+                    long d = dik + dkj;
+                    int h = hik + hops[kn + j];
+                    if (d < dist[in + j] || (d == dist[in + j] && h < hops[in + j])) {
+                        dist[in + j] = d;
+                        hops[in + j] = h;
+                        next[in + j] = next[in + k];
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean hasNegativeCycle() {
+        for (int i = 0; i < n; i++) {
+            if (dist[i * n + i] < 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * u から v への最短路上の頂点を u から順に並べた配列を返す．v に到達できない場合は {@code null}．
+     */
+    public int[] path(int u, int v) {
+        if (next == null) throw new UnsupportedOperationException();
+        if (dist[u * n + v] == UNREACHABLE) return null;
+        int[] path = new int[hops[u * n + v] + 1];
+        path[0] = u;
+        for (int i = 1, w = u; w != v; i++) {
+            path[i] = w = next[w * n + v];
+        }
+        return path;
+    }
+
+    public long[] distances() {
+        return dist;
+    }
+
+    public long distance(int u, int v) {
+        return dist[u * n + v];
+    }
+
+    public boolean isReachable(int u, int v) {
+        return dist[u * n + v] != UNREACHABLE;
+    }
+
+    /******* Usage *******/
+
+    /**
+     * 乱択の密グラフ上で，V = 500, 1000, 2000, 4000 (引数で指定可) ごとにタイル分割版と素朴な三重ループの実行時間を比べる．
+     */
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? java.util.Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{500, 1000, 2000, 4000};
+        java.util.Random rnd = new java.util.Random(0);
+        for (int n : sizes) {
+            long[] mat = new long[n * n];
+            for (int i = 0; i < n * n; i++) {
+                // 辺の約半分を無しとする．
+                mat[i] = rnd.nextBoolean() ? UNREACHABLE : rnd.nextInt(1000000);
+            }
+            long[] naive = mat.clone();
+            long t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                naive[i * n + i] = Math.min(naive[i * n + i], 0);
+            }
+            for (int k = 0; k < n; k++) {
+                int kr = k * n;
+                for (int i = 0; i < n; i++) {
+                    int ir = i * n;
+                    long dik = naive[ir + k];
+                    if (dik == UNREACHABLE) continue;
+                    for (int j = 0; j < n; j++) {
+                        long dkj = naive[kr + j];
+                        if (dkj != UNREACHABLE && dik + dkj < naive[ir + j]) naive[ir + j] = dik + dkj;
+                    }
+                }
+            }
+            long t1 = System.nanoTime();
+            long[] blocked = new FloydWarshall(n, mat.clone(), false, java.util.concurrent.ForkJoinPool.commonPool()).distances();
+            long t2 = System.nanoTime();
+            if (!java.util.Arrays.equals(naive, blocked)) throw new AssertionError("Distances differ from the naive loop.");
+            System.out.printf("V=%-5d naive %8d ms  blocked %8d ms%n", n, (t1 - t0) / 1000000, (t2 - t1) / 1000000);
+        }
+    }
+}
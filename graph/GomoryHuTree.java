@@ -0,0 +1,128 @@
+package graph;
+/**
+ * 無向グラフの辺の重みを容量とみなし，Gusfield のアルゴリズムにより Gomory-Hu 木 (フロー等価木) を構築する．
+ * 最大流の計算は V-1 回で，残余グラフは一つの {@code MaxFlow} を使い回す ({@code maxFlow} が毎回流量を 0 に戻す)．
+ * 任意の 2 頂点間の最小カットの値は，木上のパスに含まれる辺の重みの最小値に等しく，ダブリングにより &Theta;(logV) で求める．
+ */
+class GomoryHuTree {
+    public static final long INF = Long.MAX_VALUE;
+
+    private final int n;
+    private final int log;
+    private final int[] parent;
+    private final long[] weight;
+    private final int[] dep;
+    /**
+     * {@code ancestor[i][v]} は v の 2^i 個上の祖先，{@code pathMin[i][v]} はそこまでのパス上の辺の重みの最小値．
+     */
+    private final int[][] ancestor;
+    private final long[][] pathMin;
+
+    public GomoryHuTree(Graph<? extends AbstractEdge> g) {
+        this(new CSRGraph(g));
+    }
+
+    public GomoryHuTree(CSRGraph g) {
+        if (g.directed) throw new UnsupportedOperationException("Gomory-Hu tree requires an undirected graph.");
+        this.n = g.getV();
+        Digraph<CapEdge> dig = new Digraph<>(n);
+        for (int u = 0; u < n; u++) {
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
+                if (u != v) dig.addEdge(new CapEdge(u, v, g.cost[k]));
+            }
+        }
+        this.parent = new int[n];
+        this.weight = new long[n];
+        this.dep = new int[n];
+        build(new MaxFlow(dig));
+        int k = 1;
+        while ((1 << k) < n) k++;
+        this.log = k;
+        this.ancestor = new int[log][n];
+        this.pathMin = new long[log][n];
+        buildTable();
+    }
+
+    private void build(MaxFlow mf) {
+        if (n == 0) return;
+        parent[0] = -1;
+        weight[0] = INF;
+        for (int s = 1; s < n; s++) {
+            int t = parent[s];
+            weight[s] = mf.maxFlow(s, t);
+            boolean[] cut = mf.minCut(s);
+            for (int i = s + 1; i < n; i++) {
+                if (cut[i] && parent[i] == t) parent[i] = s;
+            }
+        }
+    }
+
+    private void buildTable() {
+        if (n == 0) return;
+        // parent[v] < v なので添字の昇順に深さが決まる．
+        for (int v = 1; v < n; v++) {
+            dep[v] = dep[parent[v]] + 1;
+        }
+        for (int v = 0; v < n; v++) {
+            ancestor[0][v] = v == 0 ? 0 : parent[v];
+            pathMin[0][v] = weight[v];
+        }
+        for (int i = 1; i < log; i++) {
+            for (int v = 0; v < n; v++) {
+                int a = ancestor[i - 1][v];
+                ancestor[i][v] = ancestor[i - 1][a];
+                pathMin[i][v] = Math.min(pathMin[i - 1][v], pathMin[i - 1][a]);
+            }
+        }
+    }
+
+    /**
+     * u と v を分離するカットの容量の最小値．u = v の場合は {@code INF}．
+     */
+    public long minCut(int u, int v) {
+        rangeCheck(u, 0, n);
+        rangeCheck(v, 0, n);
+        long res = INF;
+        if (dep[u] < dep[v]) {
+            int tmp = u;
+            u = v;
+            v = tmp;
+        }
+        for (int i = 0, d = dep[u] - dep[v]; d > 0; i++, d >>= 1) {
+            if ((d & 1) == 0) continue;
+            res = Math.min(res, pathMin[i][u]);
+            u = ancestor[i][u];
+        }
+        if (u == v) return res;
+        for (int i = log - 1; i >= 0; i--) {
+            if (ancestor[i][u] == ancestor[i][v]) continue;
+            res = Math.min(res, Math.min(pathMin[i][u], pathMin[i][v]));
+            u = ancestor[i][u];
+            v = ancestor[i][v];
+        }
+        return Math.min(res, Math.min(weight[u], weight[v]));
+    }
+
+    /**
+     * 頂点 0 を根とする木の各頂点の親．根の親は -1．{@code parent[v] < v} を満たす．
+     */
+    public int[] getParent() {
+        return parent;
+    }
+
+    /**
+     * 各頂点とその親を結ぶ木の辺の重み．根の値は {@code INF}．
+     */
+    public long[] getWeight() {
+        return weight;
+    }
+
+    private void rangeCheck(int i, int minInlusive, int maxExclusive) {
+        if (i < 0 || i >= maxExclusive) {
+            throw new IndexOutOfBoundsException(
+                String.format("Index %d out of bounds for length %d", i, maxExclusive)
+            );
+        }
+    }
+}
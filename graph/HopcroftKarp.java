@@ -0,0 +1,232 @@
+package graph;
+/**
+ * Hopcroft-Karp 法により二部グラフの最大マッチングを求める．計算量は &Theta;(E sqrt(V))．
+ * 左側の頂点 0, ..., L-1 と右側の頂点 0, ..., R-1 の間の辺を CSR 形式の {@code int} 配列で持ち，探索は全て非再帰で行う．
+ * 最大マッチングから König の定理により最小点被覆も求められる．
+ */
+class HopcroftKarp {
+    private final int l, r;
+    private final int[] start;
+    private final int[] adj;
+    private final int[] matchL;
+    private final int[] matchR;
+    private final int size;
+
+    private boolean[] coverL;
+    private boolean[] coverR;
+
+    /**
+     * i 番目の辺が左側の頂点 {@code left[i]} と右側の頂点 {@code right[i]} を結ぶ二部グラフを構築し，最大マッチングを求める．
+     * @param greedyInit {@code true} なら貪欲に作ったマッチングから探索を始める．多くの場合で反復回数が減る．
+     */
+    public HopcroftKarp(int l, int r, int[] left, int[] right, boolean greedyInit) {
+        if (left.length != right.length) {
+            throw new IllegalArgumentException(
+                String.format("Lengths %d and %d differ.", left.length, right.length)
+            );
+        }
+        this.l = l;
+        this.r = r;
+        int m = left.length;
+        this.start = new int[l + 1];
+        this.adj = new int[m];
+        for (int i = 0; i < m; i++) {
+            rangeCheck(left[i], 0, l);
+            rangeCheck(right[i], 0, r);
+            start[left[i] + 1]++;
+        }
+        for (int u = 0; u < l; u++) {
+            start[u + 1] += start[u];
+        }
+        int[] idx = java.util.Arrays.copyOf(start, l);
+        for (int i = 0; i < m; i++) {
+            adj[idx[left[i]]++] = right[i];
+        }
+        this.matchL = new int[l];
+        this.matchR = new int[r];
+        java.util.Arrays.fill(matchL, -1);
+        java.util.Arrays.fill(matchR, -1);
+        this.size = solve(greedyInit);
+    }
+
+    public HopcroftKarp(int l, int r, int[] left, int[] right) {
+        this(l, r, left, right, true);
+    }
+
+    private int solve(boolean greedyInit) {
+        int res = 0;
+        if (greedyInit) {
+            for (int u = 0; u < l; u++) {
+                for (int k = start[u]; k < start[u + 1]; k++) {
+                    int v = adj[k];
+                    if (matchR[v] < 0) {
+                        matchL[u] = v;
+                        matchR[v] = u;
+                        res++;
+                        break;
+                    }
+                }
+            }
+        }
+        int[] dist = new int[l];
+        int[] que = new int[l];
+        int[] iter = new int[l];
+        int[] stack = new int[l];
+        for (int limit; (limit = bfs(dist, que)) >= 0;) {
+            System.arraycopy(start, 0, iter, 0, l);
+            for (int u = 0; u < l; u++) {
+                if (matchL[u] < 0 && dfs(u, limit, dist, iter, stack)) res++;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * 未マッチの左側の頂点からの交互路の長さで左側の頂点を層に分ける．未マッチの右側の頂点に最初に到達した層で打ち切り，
+     * その層の番号を返す．到達できなければ -1．各フェーズで最短の増加路のみを使うことで，フェーズ数が O(sqrt(V)) に抑えられる．
+     */
+    private int bfs(int[] dist, int[] que) {
+        int hd = 0, tl = 0;
+        for (int u = 0; u < l; u++) {
+            if (matchL[u] < 0) {
+                dist[u] = 0;
+                que[tl++] = u;
+            } else {
+                dist[u] = -1;
+            }
+        }
+        int limit = -1;
+        while (hd < tl) {
+            int u = que[hd++];
+            if (limit >= 0 && dist[u] > limit) break;
+            for (int k = start[u]; k < start[u + 1]; k++) {
+                int w = matchR[adj[k]];
+                if (w < 0) {
+                    limit = dist[u];
+                } else if (dist[w] < 0) {
+                    dist[w] = dist[u] + 1;
+                    que[tl++] = w;
+                }
+            }
+        }
+        // 打ち切った層より深い頂点は DFS で辿らない．
+        for (int i = 0; i < tl; i++) {
+            if (dist[que[i]] > limit) dist[que[i]] = -1;
+        }
+        return limit;
+    }
+
+    /**
+     * 左側の頂点 s から層に沿って長さが最短の増加路を探し，見つかればマッチングを入れ替える．
+     * 未マッチの右側の頂点は層 {@code limit} の頂点からのみ受け付ける．
+     * {@code stack} には s から現在の頂点までの左側の頂点を積み，各頂点の次の右側の頂点は {@code adj[iter[u]]}．
+     */
+    private boolean dfs(int s, int limit, int[] dist, int[] iter, int[] stack) {
+        int top = 0;
+        stack[top++] = s;
+        while (top > 0) {
+            int u = stack[top - 1];
+            if (iter[u] == start[u + 1]) {
+                dist[u] = -1;
+                top--;
+                if (top > 0) iter[stack[top - 1]]++;
+                continue;
+            }
+            int w = matchR[adj[iter[u]]];
+            if (w < 0 && dist[u] == limit) {
+                for (int i = 0; i < top; i++) {
+                    int x = stack[i];
+                    int v = adj[iter[x]];
+                    matchL[x] = v;
+                    matchR[v] = x;
+                }
+                return true;
+            }
+            if (w >= 0 && dist[w] == dist[u] + 1) {
+                stack[top++] = w;
+            } else {
+                iter[u]++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 最大マッチングの大きさ．
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 左側の各頂点とマッチしている右側の頂点．マッチしていなければ -1．
+     */
+    public int[] getMatchL() {
+        return matchL;
+    }
+
+    /**
+     * 右側の各頂点とマッチしている左側の頂点．マッチしていなければ -1．
+     */
+    public int[] getMatchR() {
+        return matchR;
+    }
+
+    /**
+     * 最小点被覆に含まれる左側の頂点．大きさの合計は最大マッチングの大きさと等しい．
+     */
+    public boolean[] minVertexCoverL() {
+        if (coverL == null) buildCover();
+        return coverL;
+    }
+
+    /**
+     * 最小点被覆に含まれる右側の頂点．
+     */
+    public boolean[] minVertexCoverR() {
+        if (coverR == null) buildCover();
+        return coverR;
+    }
+
+    /**
+     * 未マッチの左側の頂点から交互路で到達できる頂点の集合を Z として，(左側 \ Z) ∪ (右側 ∩ Z) が最小点被覆となる．
+     */
+    private void buildCover() {
+        boolean[] visitedL = new boolean[l];
+        boolean[] visitedR = new boolean[r];
+        int[] que = new int[l];
+        int hd = 0, tl = 0;
+        for (int u = 0; u < l; u++) {
+            if (matchL[u] < 0) {
+                visitedL[u] = true;
+                que[tl++] = u;
+            }
+        }
+        while (hd < tl) {
+            int u = que[hd++];
+            for (int k = start[u]; k < start[u + 1]; k++) {
+                int v = adj[k];
+                if (visitedR[v]) continue;
+                visitedR[v] = true;
+                int w = matchR[v];
+                if (w >= 0 && !visitedL[w]) {
+                    visitedL[w] = true;
+                    que[tl++] = w;
+                }
+            }
+        }
+        for (int u = 0; u < l; u++) {
+            visitedL[u] = !visitedL[u];
+        }
+        coverL = visitedL;
+        coverR = visitedR;
+    }
+
+    private void rangeCheck(int i, int minInlusive, int maxExclusive) {
+        if (i < 0 || i >= maxExclusive) {
+            throw new IndexOutOfBoundsException(
+                String.format("Index %d out of bounds for length %d", i, maxExclusive)
+            );
+        }
+    }
+}
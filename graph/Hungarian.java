@@ -0,0 +1,167 @@
+package graph;
+/**
+ * ハンガリアン法により割当問題を解く．N×M (N <= M) のコスト行列に対して，各行に相異なる列を 1 つずつ割り当てるときの
+ * コストの総和の最小値を &Theta;(N^2 M) で求める．コスト行列は {@code [i * M + j]} に行 i 列 j のコストを持つ
+ * 一次元の {@code long} 配列で受け取り，辺のオブジェクトは作らない．負のコストがあってもよい．
+ *
+ * 行を 1 つずつ追加し，ポテンシャルで補正したコストの下での最短増加路を Dijkstra 法 (密グラフなので配列の走査) で求める．
+ */
+class Hungarian {
+    private static final long INF = Long.MAX_VALUE;
+
+    private final int n, m;
+    private final long[] cost;
+    private final int[] assignment;
+    private final long[] rowPotential;
+    private final long[] colPotential;
+    private final long minCost;
+
+    public Hungarian(int n, int m, long[] cost) {
+        if (n > m) {
+            throw new IllegalArgumentException(
+                String.format("Rows %d exceed columns %d.", n, m)
+            );
+        }
+        if (cost.length != (long) n * m) {
+            throw new IllegalArgumentException(
+                String.format("Matrix length %d is not %d * %d.", cost.length, n, m)
+            );
+        }
+        this.n = n;
+        this.m = m;
+        this.cost = cost;
+        this.assignment = new int[n];
+        this.rowPotential = new long[n];
+        this.colPotential = new long[m];
+        this.minCost = solve();
+    }
+
+    public Hungarian(int n, long[] cost) {
+        this(n, n, cost);
+    }
+
+    private long solve() {
+        // 列 j に割り当てられている行．-1 なら未割当．
+        int[] rowOf = new int[m];
+        java.util.Arrays.fill(rowOf, -1);
+        long[] minSlack = new long[m];
+        int[] way = new int[m];
+        boolean[] used = new boolean[m];
+        long[] u = rowPotential, v = colPotential;
+        for (int i = 0; i < n; i++) {
+            java.util.Arrays.fill(minSlack, INF);
+            java.util.Arrays.fill(used, false);
+            // 仮想的な列 -1 に行 i が割り当てられているとみなして探索を始める．
+            int row = i, col = -1;
+            while (true) {
+                long delta = INF;
+                int next = -1;
+                long ur = u[row];
+                int base = row * m;
+                for (int j = 0; j < m; j++) {
+                    if (used[j]) continue;
+                    long d = cost[base + j] - ur - v[j];
+                    if (d < minSlack[j]) {
+                        minSlack[j] = d;
+                        way[j] = col;
+                    }
+                    if (minSlack[j] < delta) {
+                        delta = minSlack[j];
+                        next = j;
+                    }
+                }
+                // 使用済みの列と，それらに割り当てられた行 (と行 i) のポテンシャルを delta だけずらす．
+                u[i] += delta;
+                for (int j = 0; j < m; j++) {
+                    if (used[j]) {
+                        u[rowOf[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                used[next] = true;
+                col = next;
+                if (rowOf[col] < 0) break;
+                row = rowOf[col];
+            }
+            // 増加路に沿って割当を入れ替える．
+            while (col >= 0) {
+                int prev = way[col];
+                rowOf[col] = prev >= 0 ? rowOf[prev] : i;
+                col = prev;
+            }
+        }
+        long res = 0;
+        for (int j = 0; j < m; j++) {
+            if (rowOf[j] >= 0) {
+                assignment[rowOf[j]] = j;
+                res += cost[rowOf[j] * m + j];
+            }
+        }
+        return res;
+    }
+
+    /**
+     * コストの総和の最小値．
+     */
+    public long minCost() {
+        return minCost;
+    }
+
+    /**
+     * 各行に割り当てられた列．
+     */
+    public int[] getAssignment() {
+        return assignment;
+    }
+
+    /**
+     * 双対問題の解．任意の i, j について {@code cost[i * M + j] >= rowPotential[i] + colPotential[j]} が成り立ち，
+     * 割り当てられた組では等号が成り立つ．
+     */
+    public long[] getRowPotential() {
+        return rowPotential;
+    }
+
+    public long[] getColPotential() {
+        return colPotential;
+    }
+
+    /******* Usage *******/
+
+    /**
+     * N×N の乱択のコスト行列で，二部グラフの最小費用流として解く {@code MinCostFlow} と実行時間を比べる．
+     */
+    public static void main(String[] args) {
+        java.util.Random rnd = new java.util.Random(0);
+        final int reps = 3;
+        for (int n : new int[]{100, 200, 500, 1000}) {
+            long[] cost = new long[n * n];
+            for (int i = 0; i < n * n; i++) {
+                cost[i] = rnd.nextInt(1000000000);
+            }
+            int s = 2 * n, t = 2 * n + 1;
+            long bestFlow = Long.MAX_VALUE, bestHungarian = Long.MAX_VALUE;
+            for (int rep = 0; rep < reps; rep++) {
+                long t0 = System.nanoTime();
+                Digraph<CapEdge> g = new Digraph<>(2 * n + 2);
+                for (int i = 0; i < n; i++) {
+                    g.addEdge(new CapEdge(s, i, 1, 0));
+                    g.addEdge(new CapEdge(n + i, t, 1, 0));
+                    for (int j = 0; j < n; j++) {
+                        g.addEdge(new CapEdge(i, n + j, 1, cost[i * n + j]));
+                    }
+                }
+                long expected = new MinCostFlow(g).minCostFlow(s, t, n)[1];
+                long t1 = System.nanoTime();
+                long res = new Hungarian(n, cost).minCost();
+                long t2 = System.nanoTime();
+                if (res != expected) throw new AssertionError("Cost differs from MinCostFlow.");
+                bestFlow = Math.min(bestFlow, t1 - t0);
+                bestHungarian = Math.min(bestHungarian, t2 - t1);
+            }
+            System.out.printf("N=%-5d MinCostFlow %6d ms  Hungarian %6d ms%n", n, bestFlow / 1000000, bestHungarian / 1000000);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package graph;
+/**
+ * Johnson のアルゴリズムにより，負の重みの辺を含む疎なグラフの全点対最短距離を求める．
+ * 全頂点に重み 0 の辺を張った仮想頂点から {@code BellmanFord} (SPFA モード) でポテンシャル h を一度だけ求め，
+ * 辺 (u, v) の重みを c + h[u] - h[v] (>= 0) に付け替えた上で，各頂点を始点とする Dijkstra 法を {@code BatchDijkstra} で並列に実行する．
+ * 計算量は &Theta;(VE + V(E+V)logV)．負閉路が存在する場合は全点対最短距離を計算しない．
+ */
+class Johnson {
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    @FunctionalInterface
+    public static interface RowConsumer {
+        /**
+         * 始点 {@code source} からの最短距離 {@code row} を受け取る．複数のスレッドから同時に呼ばれる．
+         * {@code row} は呼び出しから戻った後に上書きされるので，必要ならコピーすること．
+         */
+        public void accept(int source, long[] row);
+    }
+
+    private final int n;
+    private final long[] h;
+    private final boolean hasNegativeCycle;
+    private final CSRGraph reweighted;
+    private final java.util.concurrent.ForkJoinPool pool;
+
+    public Johnson(AbstractGraph<? extends AbstractEdge> g) {
+        this(new CSRGraph(g));
+    }
+
+    public Johnson(CSRGraph g) {
+        this(g, java.util.concurrent.ForkJoinPool.commonPool());
+    }
+
+    public Johnson(CSRGraph g, java.util.concurrent.ForkJoinPool pool) {
+        this.n = g.getV();
+        this.pool = pool;
+        this.h = new long[n];
+        int slots = g.start[n];
+        int[] start = java.util.Arrays.copyOf(g.start, n + 2);
+        int[] to = java.util.Arrays.copyOf(g.to, slots + n);
+        long[] cost = java.util.Arrays.copyOf(g.cost, slots + n);
+        int[] id = java.util.Arrays.copyOf(g.id, slots + n);
+        start[n + 1] = slots + n;
+        for (int v = 0; v < n; v++) {
+            to[slots + v] = v;
+            id[slots + v] = -1;
+        }
+        BellmanFord<AbstractEdge> bf = new BellmanFord<>(new CSRGraph(n + 1, g.m + n, true, start, to, cost, id), n, true);
+        boolean negCycle = false;
+        for (int v = 0; v < n; v++) {
+            negCycle |= bf.isNegInf(v);
+            h[v] = bf.distance(v);
+        }
+        this.hasNegativeCycle = negCycle;
+        if (negCycle) {
+            this.reweighted = null;
+            return;
+        }
+        long[] reducedCost = new long[slots];
+        for (int u = 0; u < n; u++) {
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                reducedCost[k] = g.cost[k] + h[u] - h[g.to[k]];
+            }
+        }
+        this.reweighted = new CSRGraph(n, g.m, g.directed, g.start, g.to, reducedCost, g.id);
+    }
+
+    public boolean hasNegativeCycle() {
+        return hasNegativeCycle;
+    }
+
+    /**
+     * 各頂点を始点とする最短距離を計算し，終わったものから順に {@code sink} に渡す．V×V の行列は確保しない．
+     * @return 負閉路が存在して計算できない場合は {@code false}
+     */
+    public boolean run(RowConsumer sink) {
+        if (hasNegativeCycle) return false;
+        int[] sources = new int[n];
+        java.util.Arrays.setAll(sources, i -> i);
+        new BatchDijkstra(reweighted, pool).run(sources, (s, dist) -> {
+            for (int v = 0; v < n; v++) {
+                if (dist[v] != UNREACHABLE) dist[v] += h[v] - h[s];
+            }
+            sink.accept(s, dist);
+        });
+        return true;
+    }
+
+    /**
+     * 全点対最短距離を，u から v への距離が {@code [u * V + v]} に入った長さ V×V の配列で返す．
+     * @return 負閉路が存在する場合は {@code null}
+     */
+    public long[] distances() {
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                String.format("Matrix for %d vertices is too large; use run(RowConsumer) instead.", n)
+            );
+        }
+        long[] mat = new long[n * n];
+        return run((s, row) -> System.arraycopy(row, 0, mat, s * n, n)) ? mat : null;
+    }
+}
@@ -10,6 +10,8 @@ class Kruskal<Edg extends AbstractEdge> {
     private final int[] dsu;
     private final long cost;
     private final java.util.ArrayList<Edg> mst;
+    private final int[] mstIds;
+    private int mstSize = 0;
     private final boolean isConnected;
 
     public Kruskal(AbstractGraph<Edg> g) {
@@ -17,10 +19,21 @@ class Kruskal<Edg extends AbstractEdge> {
         this.dsu = new int[n];
         java.util.Arrays.fill(dsu, -1);
         this.mst = new java.util.ArrayList<Edg>(n - 1);
+        this.mstIds = null;
         this.cost = solve(g);
         this.isConnected = mst.size() == n - 1;
     }
 
+    public Kruskal(CSRGraph g) {
+        this.n = g.getV();
+        this.dsu = new int[n];
+        java.util.Arrays.fill(dsu, -1);
+        this.mst = null;
+        this.mstIds = new int[Math.max(n - 1, 0)];
+        this.cost = solve(g);
+        this.isConnected = mstSize == n - 1;
+    }
+
     public boolean isConnected() {
         return isConnected;
     }
@@ -33,13 +46,27 @@ class Kruskal<Edg extends AbstractEdge> {
         return isConnected ? mst : null;
     }
 
+    /**
+     * {@code CSRGraph} から構築した場合の最小全域木の辺番号の列．
+     */
+    public int[] getMSTIds() {
+        return isConnected ? mstIds : null;
+    }
+
     private long solve(AbstractGraph<Edg> g) {
         if (g.getE() == 0) return 0;
         long cost = 0;
-        java.util.PriorityQueue<Edg> pq = new java.util.PriorityQueue<>(g.getE());
-        g.getEdges().forEach(pq::add);
-        while (mst.size() < n - 1 && pq.size() > 0) {
-            Edg e = pq.poll();
+        java.util.ArrayList<Edg> edges = g.getEdges();
+        int m = edges.size();
+        long[] keys = new long[m];
+        int[] order = new int[m];
+        for (int i = 0; i < m; i++) {
+            keys[i] = edges.get(i).cost;
+            order[i] = i;
+        }
+        radixSort(keys, order);
+        for (int i = 0; i < m && mst.size() < n - 1; i++) {
+            Edg e = edges.get(order[i]);
             if (merge(e.from, e.to)) {
                 mst.add(e);
                 cost += e.cost;
@@ -48,6 +75,80 @@ class Kruskal<Edg extends AbstractEdge> {
         return cost;
     }
 
+    private long solve(CSRGraph g) {
+        if (g.getE() == 0) return 0;
+        long cost = 0;
+        int[] from = new int[g.to.length];
+        int num = 0;
+        for (int u = 0; u < n; u++) {
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                from[k] = u;
+                if (g.directed ? u != g.to[k] : u < g.to[k]) num++;
+            }
+        }
+        long[] keys = new long[num];
+        int[] order = new int[num];
+        num = 0;
+        for (int k = 0; k < g.to.length; k++) {
+            int u = from[k];
+            if (g.directed ? u != g.to[k] : u < g.to[k]) {
+                keys[num] = g.cost[k];
+                order[num++] = k;
+            }
+        }
+        radixSort(keys, order);
+        for (int i = 0; i < num && mstSize < n - 1; i++) {
+            int k = order[i];
+            if (merge(from[k], g.to[k])) {
+                mstIds[mstSize++] = g.id[k];
+                cost += g.cost[k];
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * {@code keys} を昇順に並べ替え，{@code vals} も同じように並べ替える．8 bit ずつの LSD 基数ソートで安定．
+     * 符号ビットを反転して符号なし整数として比較する．全ての要素で同じ値になる桁は飛ばす．
+     */
+    static void radixSort(long[] keys, int[] vals) {
+        int m = keys.length;
+        if (m == 0) return;
+        long[] resKeys = keys;
+        int[] resVals = vals;
+        long[] keyBuf = new long[m];
+        int[] valBuf = new int[m];
+        int[] count = new int[257];
+        for (int i = 0; i < m; i++) {
+            keys[i] ^= Long.MIN_VALUE;
+        }
+        for (int shift = 0; shift < 64; shift += 8) {
+            java.util.Arrays.fill(count, 0);
+            for (int i = 0; i < m; i++) {
+                count[(int) (keys[i] >>> shift & 0xff) + 1]++;
+            }
+            if (count[(int) (keys[0] >>> shift & 0xff) + 1] == m) continue;
+            for (int i = 0; i < 256; i++) {
+                count[i + 1] += count[i];
+            }
+            for (int i = 0; i < m; i++) {
+                int d = (int) (keys[i] >>> shift & 0xff);
+                int j = count[d]++;
+                keyBuf[j] = keys[i];
+                valBuf[j] = vals[i];
+            }
+            long[] tk = keys; keys = keyBuf; keyBuf = tk;
+            int[] tv = vals; vals = valBuf; valBuf = tv;
+        }
+        if (keys != resKeys) {
+            System.arraycopy(keys, 0, resKeys, 0, m);
+            System.arraycopy(vals, 0, resVals, 0, m);
+        }
+        for (int i = 0; i < m; i++) {
+            resKeys[i] ^= Long.MIN_VALUE;
+        }
+    }
+
     private boolean merge(int x, int y) {
         if ((x = leader(x)) == (y = leader(y))) return false;
         if (dsu[y] < dsu[x]) {
@@ -14,6 +14,12 @@ public class LowLink<Edg extends AbstractEdge> {
     final int[] Par;
     final java.util.ArrayList<Integer> Articulation;
     final java.util.ArrayList<Edg> Bridge;
+    final int[] ArticulationPoints;
+    final int[] BridgeIds;
+    private int articulationNum = 0;
+    private int bridgeNum = 0;
+    private int[] bridgeFrom = new int[1];
+    private int[] bridgeSlot = new int[1];
     public LowLink(Graph<Edg> g) {
         this.Articulation = new java.util.ArrayList<>();
         this.Bridge = new java.util.ArrayList<>();
@@ -21,7 +27,34 @@ public class LowLink<Edg extends AbstractEdge> {
         this.Ord = new int[N];
         this.Low = new int[N];
         this.Par = new int[N];
-        build(g);
+        CSRGraph csr = new CSRGraph(g);
+        int[] articulations = new int[N];
+        build(csr, articulations);
+        for (int i = 0; i < articulationNum; i++) {
+            Articulation.add(articulations[i]);
+        }
+        for (int i = 0; i < bridgeNum; i++) {
+            int u = bridgeFrom[i];
+            Bridge.add(g.getEdge(u, bridgeSlot[i] - csr.start[u]));
+        }
+        this.ArticulationPoints = null;
+        this.BridgeIds = null;
+    }
+
+    public LowLink(CSRGraph g) {
+        this.Articulation = null;
+        this.Bridge = null;
+        this.N = g.getV();
+        this.Ord = new int[N];
+        this.Low = new int[N];
+        this.Par = new int[N];
+        int[] articulations = new int[N];
+        build(g, articulations);
+        this.ArticulationPoints = java.util.Arrays.copyOf(articulations, articulationNum);
+        this.BridgeIds = new int[bridgeNum];
+        for (int i = 0; i < bridgeNum; i++) {
+            BridgeIds[i] = g.id[bridgeSlot[i]];
+        }
     }
 
     public java.util.ArrayList<Integer> getArticulations() {
@@ -30,12 +63,27 @@ public class LowLink<Edg extends AbstractEdge> {
     public java.util.ArrayList<Edg> getBridges() {
         return Bridge;
     }
+    /**
+     * {@code CSRGraph} から構築した場合の関節点の列．
+     */
+    public int[] getArticulationPoints() {
+        return ArticulationPoints;
+    }
+    /**
+     * {@code CSRGraph} から構築した場合の橋の辺番号の列．
+     */
+    public int[] getBridgeIds() {
+        return BridgeIds;
+    }
 
-    private void build(Graph<Edg> g) {
+    private void build(CSRGraph g, int[] articulations) {
         int nowOrd = 0;
         java.util.Arrays.fill(Ord, -1);
         long[] stack = new long[N];
         int ptr = 0;
+        // parSlot[v] は v を発見した辺の位置．
+        int[] parSlot = new int[N];
+        boolean[] parSkipped = new boolean[N];
         for (int i = 0; i < N; i++) {
             if (Ord[i] >= 0) continue;
             Par[i] = -1;
@@ -48,12 +96,18 @@ public class LowLink<Edg extends AbstractEdge> {
                     Low[u] = Ord[u] = nowOrd++;
                 }
                 if (j < g.deg(u)) {
-                    int v = g.getEdge(u, j).to;
+                    int k = g.start[u] + j;
+                    int v = g.to[k];
                     stack[ptr++] += 1l << 32;
-                    if (v == Par[u]) continue;
+                    // 親へ戻る辺は 1 本だけ飛ばす．多重辺の残りは後退辺として扱う．
+                    if (v == Par[u] && !parSkipped[u]) {
+                        parSkipped[u] = true;
+                        continue;
+                    }
                     if (Ord[v] == -1) {
                         stack[ptr++] = 0l << 32 | v;
                         Par[v] = u;
+                        parSlot[v] = k;
                     } else {
                         Low[u] = Math.min(Low[u], Ord[v]);
                     }
@@ -61,17 +115,24 @@ public class LowLink<Edg extends AbstractEdge> {
                     boolean isArticulation = false;
                     int cnt = 0;
                     while (j --> 0) {
-                        Edg e = g.getEdge(u, j);
-                        int v = e.to;
-                        if (Par[v] == u) {
+                        int k = g.start[u] + j;
+                        int v = g.to[k];
+                        if (Par[v] == u && parSlot[v] == k) {
                             Low[u] = Math.min(Low[u], Low[v]);
                             cnt++;
                             isArticulation |= u != i && Ord[u] <= Low[v];
-                            if (Ord[u] < Low[v]) Bridge.add(e);
+                            if (Ord[u] < Low[v]) {
+                                if (bridgeNum == bridgeSlot.length) {
+                                    bridgeFrom = java.util.Arrays.copyOf(bridgeFrom, bridgeNum << 1);
+                                    bridgeSlot = java.util.Arrays.copyOf(bridgeSlot, bridgeNum << 1);
+                                }
+                                bridgeFrom[bridgeNum] = u;
+                                bridgeSlot[bridgeNum++] = k;
+                            }
                         }
                     }
                     isArticulation |= u == i && cnt > 1;
-                    if (isArticulation) Articulation.add(u);
+                    if (isArticulation) articulations[articulationNum++] = u;
                 }
             }
         }
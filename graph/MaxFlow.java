@@ -1,88 +1,151 @@
 package graph;
 /**
+ * 残余グラフを primitive 配列で持つ最大流．構築時に入力の各辺の {@code rev} を書き換え，{@code getFlow} はそれを使って流量を求める．
+ *
+ * {@code maxFlow}，{@code flow}，{@code fordFulkersonMaxFlow}，{@code fordFulkersonFlow} は流量を 0 に戻してから流す．
+ * 現在の残余グラフに追加で流す場合は {@code augment} を使う．
+ *
  * @verified
  * - https://atcoder.jp/contests/practice2/tasks/practice2_d
  */
 class MaxFlow {
     private static final long INF = Long.MAX_VALUE;
 
-    private final Digraph<? extends CapEdge> dig;
     private final int n;
-    private final int[] count;
-    private final CapEdge[][] g;
+    private final int[] deg;
+    /**
+     * 頂点 u の辺は {@code [start[u], start[u + 1])} に格納される．先頭の deg(u) 個は入力のグラフの辺と同じ順序で並び，
+     * その後に u に入る辺の逆辺が続く．{@code rev[k]} は辺 k の逆辺の位置，{@code cap[k]} は残余容量，{@code limit[k]} は容量 (逆辺は 0)．
+     */
+    private final int[] start;
+    private final int[] to;
+    private final int[] rev;
+    private final long[] cap;
+    private final long[] limit;
+
+    private final int[] level;
+    private final int[] que;
+    private final int[] iter;
+    private final int[] path;
 
     public MaxFlow(Digraph<? extends CapEdge> capDiraph) {
-        this.dig = capDiraph;
         this.n = capDiraph.getV();
-        this.count = new int[n];
-        this.g = new CapEdge[n][];
-        buildGraph();
-    }
-
-    public long getFlow(CapEdge e) {
-        return g[e.to][e.rev].cap;
-    }
-
-    private void buildGraph() {
-        int[] idx = new int[n];
-        for (int i = 0; i < n; i++) {
-            count[i] = idx[i] = dig.deg(i);
+        this.deg = new int[n];
+        this.start = new int[n + 1];
+        int m = capDiraph.getE();
+        for (CapEdge e : capDiraph.getEdges()) {
+            nonNegativeCheck(e.cap, "Capacity");
+            start[e.from + 1]++;
+            start[e.to + 1]++;
         }
-        for (CapEdge e : dig.getEdges()) {
-            int j = e.to;
-            count[j]++;
+        for (int i = 0; i < n; i++) {
+            start[i + 1] += start[i];
         }
+        this.to = new int[2 * m];
+        this.rev = new int[2 * m];
+        this.cap = new long[2 * m];
+        this.limit = new long[2 * m];
+        int[] idx = new int[n];
         for (int i = 0; i < n; i++) {
-            g[i] = new CapEdge[count[i]];
+            deg[i] = capDiraph.deg(i);
+            idx[i] = start[i] + deg[i];
         }
         for (int u = 0; u < n; u++) {
-            int k = dig.deg(u);
-            for (int i = 0; i < k; i++) {
-                CapEdge e = dig.getEdge(u, i);
+            for (int i = 0; i < deg[u]; i++) {
+                CapEdge e = capDiraph.getEdge(u, i);
                 int v = e.to;
-                e.rev = idx[v]++;
-                CapEdge r = new CapEdge(v, u, 0);
-                r.rev = i;
-                g[u][i] = e;
-                g[v][e.rev] = r;
+                int f = start[u] + i, r = idx[v]++;
+                e.rev = r - start[v];
+                to[f] = v;
+                to[r] = u;
+                rev[f] = r;
+                rev[r] = f;
+                cap[f] = limit[f] = e.cap;
             }
         }
+        this.level = new int[n];
+        this.que = new int[n];
+        this.iter = new int[n];
+        this.path = new int[n];
+    }
+
+    public long getFlow(CapEdge e) {
+        return cap[start[e.to] + e.rev];
+    }
+
+    /**
+     * 全ての辺の流量を 0 に戻す．
+     */
+    public void clearFlow() {
+        System.arraycopy(limit, 0, cap, 0, cap.length);
     }
 
     public long maxFlow(int s, int t) {
         return flow(s, t, INF);
     }
 
+    public long maxFlow(int s, int t, boolean capacityScaling) {
+        return flow(s, t, INF, capacityScaling);
+    }
+
     public long flow(int s, int t, long flowLimit) {
+        return flow(s, t, flowLimit, false);
+    }
+
+    /**
+     * @param capacityScaling {@code true} なら残余容量が delta 以上の辺のみを使う Dinic 法を delta = 2^k, ..., 2, 1 の順に行う．
+     * 容量の幅が大きいグラフで増加路の本数を抑えられる．
+     */
+    public long flow(int s, int t, long flowLimit, boolean capacityScaling) {
+        clearFlow();
+        return augment(s, t, flowLimit, capacityScaling);
+    }
+
+    public long augment(int s, int t, long flowLimit) {
+        return augment(s, t, flowLimit, false);
+    }
+
+    /**
+     * 流量を 0 に戻さずに，現在の残余グラフに対して s から t へ高々 {@code flowLimit} だけ追加で流し，追加で流れた量を返す．
+     */
+    public long augment(int s, int t, long flowLimit, boolean capacityScaling) {
         rangeCheck(s, 0, n);
         rangeCheck(t, 0, n);
-        buildGraph();
+        if (s == t) {
+            throw new IllegalArgumentException(
+                String.format("Source and sink are the same vertex %d.", s)
+            );
+        }
+        long delta = 1;
+        if (capacityScaling) {
+            long maxCap = 0;
+            for (long c : cap) maxCap = Math.max(maxCap, c);
+            delta = Math.max(Long.highestOneBit(maxCap), 1);
+        }
         long flow = 0;
-        int[] level = new int[n];
-        int[] que = new int[n];
-        int[] iter = new int[n];
-        while (true) {
-            java.util.Arrays.fill(level, -1);
-            dinicBFS(s, t, level, que);
-            if (level[t] < 0) return flow;
-            java.util.Arrays.fill(iter, 0);
-            while (true) {
-                long d = dinicDFS(t, s, flowLimit - flow, iter, level);
-                if (d <= 0) break;
-                flow += d;
+        for (; delta > 0 && flow < flowLimit; delta >>= 1) {
+            while (flow < flowLimit) {
+                java.util.Arrays.fill(level, -1);
+                dinicBFS(s, t, delta);
+                if (level[t] < 0) break;
+                for (int i = 0; i < n; i++) {
+                    iter[i] = start[i];
+                }
+                flow += dinicDFS(s, t, flowLimit - flow, delta);
             }
         }
+        return flow;
     }
 
-    private void dinicBFS(int s, int t, int[] level, int[] que) {
+    private void dinicBFS(int s, int t, long delta) {
         int hd = 0, tl = 0;
         que[tl++] = s;
         level[s] = 0;
         while (tl > hd) {
             int u = que[hd++];
-            for (CapEdge e : g[u]) {
-                int v = e.to;
-                if (e.cap <= 0 || level[v] >= 0) continue;
+            for (int k = start[u]; k < start[u + 1]; k++) {
+                int v = to[k];
+                if (cap[k] < delta || level[v] >= 0) continue;
                 level[v] = level[u] + 1;
                 if (v == t) return;
                 que[tl++] = v;
@@ -90,22 +153,48 @@ class MaxFlow {
         }
     }
 
-    private long dinicDFS(int cur, int s, long f, int[] iter, int[] level) {
-        if (cur == s) return f;
+    /**
+     * レベルグラフ上の増加路を s から非再帰で探索し，ブロッキングフローを流す．
+     * {@code path} には s から現在の頂点までの辺を積む．行き止まりの頂点はレベルを -1 にして以降の探索から除く．
+     */
+    private long dinicDFS(int s, int t, long f, long delta) {
         long res = 0;
-        while (iter[cur] < count[cur]) {
-            CapEdge er = g[cur][iter[cur]++];
-            int u = er.to;
-            CapEdge e = g[u][er.rev];
-            if (level[u] >= level[cur] || e.cap <= 0) continue;
-            long d = dinicDFS(u, s, Math.min(f - res, e.cap), iter, level);
-            if (d <= 0) continue;
-            e.cap -= d;
-            er.cap += d;
-            res += d;
-            if (res == f) break;
+        int top = 0;
+        int u = s;
+        while (true) {
+            if (u == t) {
+                long d = f - res;
+                for (int i = 0; i < top; i++) {
+                    d = Math.min(d, cap[path[i]]);
+                }
+                int back = top;
+                for (int i = top - 1; i >= 0; i--) {
+                    int k = path[i];
+                    cap[k] -= d;
+                    cap[rev[k]] += d;
+                    if (cap[k] < delta) back = i;
+                }
+                res += d;
+                if (res == f) return res;
+                top = back;
+                u = top == 0 ? s : to[path[top - 1]];
+                continue;
+            }
+            int k = iter[u];
+            for (; k < start[u + 1]; k++) {
+                if (cap[k] >= delta && level[to[k]] == level[u] + 1) break;
+            }
+            iter[u] = k;
+            if (k < start[u + 1]) {
+                path[top++] = k;
+                u = to[k];
+            } else {
+                if (top == 0) return res;
+                level[u] = -1;
+                u = to[rev[path[--top]]];
+                iter[u]++;
+            }
         }
-        return res;
     }
 
     public long fordFulkersonMaxFlow(int s, int t) {
@@ -115,26 +204,28 @@ class MaxFlow {
     public long fordFulkersonFlow(int s, int t, long flowLimit) {
         rangeCheck(s, 0, n);
         rangeCheck(t, 0, n);
-        buildGraph();
+        clearFlow();
         boolean[] used = new boolean[n];
         long flow = 0;
-        while (true) {
+        while (flow < flowLimit) {
             java.util.Arrays.fill(used, false);
             long f = fordFulkersonDFS(s, t, flowLimit - flow, used);
             if (f <= 0) return flow;
             flow += f;
         }
+        return flow;
     }
 
     private long fordFulkersonDFS(int cur, int t, long f, boolean[] used) {
         if (cur == t) return f;
         used[cur] = true;
-        for (CapEdge e : g[cur]) {
-            if (used[e.to] || e.cap <= 0) continue;
-            long d = fordFulkersonDFS(e.to, t, Math.min(f, e.cap), used);
+        for (int k = start[cur]; k < start[cur + 1]; k++) {
+            int v = to[k];
+            if (used[v] || cap[k] <= 0) continue;
+            long d = fordFulkersonDFS(v, t, Math.min(f, cap[k]), used);
             if (d <= 0) continue;
-            e.cap -= d;
-            g[e.to][e.rev].cap += d;
+            cap[k] -= d;
+            cap[rev[k]] += d;
             return d;
         }
         return 0;
@@ -149,9 +240,9 @@ class MaxFlow {
         reachable[s] = true;
         while (ptr > 0) {
             int u = stack[--ptr];
-            for (CapEdge e : g[u]) {
-                int v = e.to;
-                if (reachable[v] || e.cap <= 0) continue;
+            for (int k = start[u]; k < start[u + 1]; k++) {
+                int v = to[k];
+                if (reachable[v] || cap[k] <= 0) continue;
                 reachable[v] = true;
                 stack[ptr++] = v;
             }
@@ -159,17 +250,69 @@ class MaxFlow {
         return reachable;
     }
 
+    /**
+     * u から出る i 番目の辺の容量と流量を直接書き換える．流量保存則が崩れる場合の整合性は呼び出し側が保つこと．
+     */
     public void changeEdge(int u, int i, long newCap, long newFlow) {
         nonNegativeCheck(newCap, "Capacity");
+        nonNegativeCheck(newFlow, "Flow");
         if (newFlow > newCap) {
             throw new IllegalArgumentException(
-                String.format("Flow %d is greater than capacity %d.", newCap, newFlow)
+                String.format("Flow %d is greater than capacity %d.", newFlow, newCap)
             );
         }
-        CapEdge e = dig.getEdge(u, i);
-        CapEdge er = g[e.to][e.rev];
-        e.cap = newCap - newFlow;
-        er.cap = newFlow;
+        int k = edgeIndex(u, i);
+        limit[k] = newCap;
+        cap[k] = newCap - newFlow;
+        cap[rev[k]] = newFlow;
+    }
+
+    /**
+     * s から t へのフローを保ったまま，u から出る i 番目の辺の容量を {@code newCap} に変更する．
+     * 容量が現在の流量を下回る場合は，超過分をまず残余グラフ上で別の経路に流し直し，流し直せなかった分は
+     * s-t フローから取り除く．容量を増やした場合は，続けて {@code augment(s, t, ...)} を呼べば増加分だけを流せる．
+     * @return s から流れ出る量の減少量
+     */
+    public long changeCapacity(int s, int t, int u, int i, long newCap) {
+        rangeCheck(s, 0, n);
+        rangeCheck(t, 0, n);
+        nonNegativeCheck(newCap, "Capacity");
+        int k = edgeIndex(u, i);
+        int v = to[k];
+        long flow = cap[rev[k]];
+        limit[k] = newCap;
+        if (flow <= newCap) {
+            cap[k] = newCap - flow;
+            return 0;
+        }
+        long before = netOutflow(s);
+        cap[k] = 0;
+        cap[rev[k]] = newCap;
+        if (u == v) return 0;
+        long excess = flow - newCap;
+        excess -= augment(u, v, excess);
+        if (excess > 0) {
+            if (u != s && u != t) augment(u, s, excess);
+            if (v != s && v != t) augment(t, v, excess);
+        }
+        return before - netOutflow(s);
+    }
+
+    private long netOutflow(int u) {
+        long res = 0;
+        for (int k = start[u]; k < start[u] + deg[u]; k++) {
+            res += cap[rev[k]];
+        }
+        for (int k = start[u] + deg[u]; k < start[u + 1]; k++) {
+            res -= cap[k];
+        }
+        return res;
+    }
+
+    private int edgeIndex(int u, int i) {
+        rangeCheck(u, 0, n);
+        rangeCheck(i, 0, deg[u]);
+        return start[u] + i;
     }
 
     private void rangeCheck(int i, int minInlusive, int maxExclusive) {
@@ -6,54 +6,67 @@ package graph;
 class MinCostFlow {
     private static final long INF = Long.MAX_VALUE;
 
-    private final Digraph<? extends CapEdge> dig;
     private final int n;
-    private final int[] count;
-    private final CapEdge[][] g;
+    /**
+     * 残余グラフは {@code MaxFlow} と同じく，頂点 u の辺を {@code [start[u], start[u + 1])} に，
+     * 元の辺を先頭に，u に入る辺の逆辺をその後ろに並べて持つ．逆辺のコストは元の辺のコストの符号を反転したもの．
+     */
+    private final int[] start;
+    private final int[] to;
+    private final int[] rev;
+    private final long[] cap;
+    private final long[] cost;
+    private final long[] limit;
     private final long[] potential;
 
     private final long[] dist;
-    private final CapEdge[] prev;
+    private final int[] prev;
+    private final ints.collection.IntIndexedPriorityQueue pq;
 
     public MinCostFlow(Digraph<? extends CapEdge> capDiraph) {
-        this.dig = capDiraph;
         this.n = capDiraph.getV();
-        this.count = new int[n];
-        this.g = new CapEdge[n][];
-        this.potential = new long[n];
-        this.dist = new long[n];
-        this.prev = new CapEdge[n];
-        buildGraph();
-    }
-
-    private void buildGraph() {
-        int[] idx = new int[n];
-        for (int i = 0; i < n; i++) {
-            count[i] = idx[i] = dig.deg(i);
+        this.start = new int[n + 1];
+        int m = capDiraph.getE();
+        for (CapEdge e : capDiraph.getEdges()) {
+            start[e.from + 1]++;
+            start[e.to + 1]++;
         }
-        for (CapEdge e : dig.getEdges()) {
-            int j = e.to;
-            count[j]++;
+        for (int i = 0; i < n; i++) {
+            start[i + 1] += start[i];
         }
+        this.to = new int[2 * m];
+        this.rev = new int[2 * m];
+        this.cap = new long[2 * m];
+        this.cost = new long[2 * m];
+        this.limit = new long[2 * m];
+        int[] idx = new int[n];
         for (int i = 0; i < n; i++) {
-            g[i] = new CapEdge[count[i]];
+            idx[i] = start[i] + capDiraph.deg(i);
         }
         for (int u = 0; u < n; u++) {
-            int k = dig.deg(u);
+            int k = capDiraph.deg(u);
             for (int i = 0; i < k; i++) {
-                CapEdge e = dig.getEdge(u, i);
+                CapEdge e = capDiraph.getEdge(u, i);
                 int v = e.to;
-                e.rev = idx[v]++;
-                CapEdge r = new CapEdge(v, u, 0, -e.cost);
-                r.rev = i;
-                g[u][i] = e;
-                g[v][e.rev] = r;
+                int f = start[u] + i, r = idx[v]++;
+                e.rev = r - start[v];
+                to[f] = v;
+                to[r] = u;
+                rev[f] = r;
+                rev[r] = f;
+                cap[f] = limit[f] = e.cap;
+                cost[f] = e.cost;
+                cost[r] = -e.cost;
             }
         }
+        this.potential = new long[n];
+        this.dist = new long[n];
+        this.prev = new int[n];
+        this.pq = new ints.collection.IntIndexedPriorityQueue(n);
     }
 
     public long getFlow(CapEdge e) {
-        return g[e.to][e.rev].cap;
+        return cap[start[e.to] + e.rev];
     }
 
     private long addFlow;
@@ -70,7 +83,6 @@ class MinCostFlow {
             throw new IllegalArgumentException(String.format("s = t = %d", s));
         }
         nonNegativeCheck(flowLimit, "Flow");
-        buildGraph();
         long flow = 0;
         long cost = 0;
         while (true) {
@@ -93,7 +105,6 @@ class MinCostFlow {
             throw new IllegalArgumentException(String.format("s = t = %d", s));
         }
         nonNegativeCheck(flowLimit, "Flow");
-        buildGraph();
         java.util.ArrayList<long[]> slope = new java.util.ArrayList<>();
         long prevCost = -1;
         long flow = 0;
@@ -111,63 +122,56 @@ class MinCostFlow {
         }
     }
 
+    /**
+     * ポテンシャルで補正したコストの下で s から t への最短路を求め，その経路に流せるだけ流す．
+     * t が確定した時点で探索を打ち切り，各頂点のポテンシャルに min(dist[v], dist[t]) を加える．
+     */
     private void dijkstra(int s, int t, long maxFlow) {
-        final class State implements Comparable<State> {
-            final int v;
-            final long d;
-            State(int v, long d) {this.v = v; this.d = d;}
-            public int compareTo(State s) {return d == s.d ? v - s.v : d > s.d ? 1 : -1;}
-        }
         java.util.Arrays.fill(dist, INF);
         dist[s] = 0;
-        java.util.PriorityQueue<State> pq = new java.util.PriorityQueue<>();
-        pq.add(new State(s, 0l));
+        pq.add(s, 0l);
         while (pq.size() > 0) {
-            State st = pq.poll();
-            int u = st.v;
-            if (st.d != dist[u]) continue;
-            for (CapEdge e : g[u]) {
-                if (e.cap <= 0) continue;
-                int v = e.to;
-                long nextCost = dist[u] + e.cost + potential[u] - potential[v];
+            int u = pq.removeFirst();
+            if (u == t) break;
+            long du = dist[u] + potential[u];
+            for (int k = start[u]; k < start[u + 1]; k++) {
+                if (cap[k] <= 0) continue;
+                int v = to[k];
+                long nextCost = du + cost[k] - potential[v];
                 if (nextCost < dist[v]) {
                     dist[v] = nextCost;
-                    prev[v] = e;
-                    pq.add(new State(v, dist[v]));
+                    prev[v] = k;
+                    pq.update(v, nextCost);
                 }
             }
         }
+        pq.clear();
         if (dist[t] == INF) {
             addFlow = 0;
             addCost = INF;
             return;
         }
+        long dt = dist[t];
         for (int i = 0; i < n; i++) {
-            potential[i] += dist[i];
+            potential[i] += Math.min(dist[i], dt);
         }
         addCost = 0;
         addFlow = maxFlow;
-        for (int v = t; v != s;) {
-            CapEdge e = prev[v];
-            addCost += e.cost;
-            addFlow = java.lang.Math.min(addFlow, e.cap);
-            v = e.from;
+        for (int v = t; v != s; v = to[rev[prev[v]]]) {
+            int k = prev[v];
+            addCost += cost[k];
+            addFlow = java.lang.Math.min(addFlow, cap[k]);
         }
-        for (int v = t; v != s;) {
-            CapEdge e = prev[v];
-            e.cap -= addFlow;
-            g[v][e.rev].cap += addFlow;
-            v = e.from;
+        for (int v = t; v != s; v = to[rev[prev[v]]]) {
+            int k = prev[v];
+            cap[k] -= addFlow;
+            cap[rev[k]] += addFlow;
         }
     }
 
     public void clearFlow() {
         java.util.Arrays.fill(potential, 0);
-        for (CapEdge e : dig.getEdges()) {
-            long flow = getFlow(e);
-            e.cap += flow;
-            g[e.to][e.rev].cap -= flow;
-        }
+        System.arraycopy(limit, 0, cap, 0, cap.length);
     }
 
     private void rangeCheck(int i, int minInlusive, int maxExclusive) {
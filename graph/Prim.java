@@ -9,15 +9,44 @@ class Prim<Edg extends AbstractEdge> {
     private final int n;
     private final long cost;
     private final java.util.ArrayList<Edg> mst;
+    private final int[] mstIds;
+    private int mstSize = 0;
     private final boolean isConnected;
 
     public Prim(AbstractGraph<Edg> g) {
         this.n = g.getV();
         this.mst = new java.util.ArrayList<Edg>(n - 1);
+        this.mstIds = null;
         this.cost = solve(g);
         this.isConnected = mst.size() == n - 1;
     }
 
+    public Prim(CSRGraph g) {
+        this.n = g.getV();
+        this.mst = null;
+        this.mstIds = new int[Math.max(n - 1, 0)];
+        this.cost = solve(g);
+        this.isConnected = mstSize == n - 1;
+    }
+
+    /**
+     * 完全グラフを隣接行列で与えて構築する．辺を作らずに配列を走査するので &Theta;(V^2)．
+     * {@code mat[u * V + v]} は u と v を結ぶ辺のコストで，辺が無い場合は {@code Long.MAX_VALUE} とする．
+     * {@code getMSTIds()} は各辺を行列の添字 {@code u * V + v} で返す．
+     */
+    public Prim(int n, long[] mat) {
+        if (mat.length != (long) n * n) {
+            throw new IllegalArgumentException(
+                String.format("Matrix length %d is not %d * %d.", mat.length, n, n)
+            );
+        }
+        this.n = n;
+        this.mst = null;
+        this.mstIds = new int[Math.max(n - 1, 0)];
+        this.cost = solve(mat);
+        this.isConnected = mstSize == n - 1;
+    }
+
     public boolean isConnected() {
         return isConnected;
     }
@@ -30,28 +59,104 @@ class Prim<Edg extends AbstractEdge> {
         return isConnected ? mst : null;
     }
 
+    /**
+     * {@code CSRGraph} から構築した場合の最小全域木の辺番号の列．
+     */
+    public int[] getMSTIds() {
+        return isConnected ? mstIds : null;
+    }
+
+    /**
+     * 頂点ごとに木との間の最小コストの辺を持ち，位置索引付きヒープの decrease-key で更新する．
+     */
     private long solve(AbstractGraph<Edg> g) {
         if (g.getE() == 0) return 0;
         long cost = 0;
         boolean[] s = new boolean[n];
+        @SuppressWarnings("unchecked")
+        Edg[] best = (Edg[]) new AbstractEdge[n];
+        ints.collection.IntIndexedPriorityQueue pq = new ints.collection.IntIndexedPriorityQueue(n);
+        s[0] = true;
+        for (int u = 0; mst.size() < n - 1;) {
+            for (Edg e : g.getEdges(u)) {
+                int v = e.from == u ? e.to : e.from;
+                if (s[v]) continue;
+                if (!pq.contains(v) || e.cost < pq.getKey(v)) {
+                    pq.update(v, e.cost);
+                    best[v] = e;
+                }
+            }
+            if (pq.isEmpty()) break;
+            u = pq.removeFirst();
+            s[u] = true;
+            cost += best[u].cost;
+            mst.add(best[u]);
+        }
+        return cost;
+    }
+
+    /**
+     * 木に含まれない各頂点について木との間の最小コストの辺を位置索引付きヒープで持つ．
+     * decrease-key で更新するので，ヒープの大きさは高々 V で古い要素が残ることもない．
+     */
+    private long solve(CSRGraph g) {
+        if (g.getE() == 0) return 0;
+        long cost = 0;
+        boolean[] s = new boolean[n];
+        int[] best = new int[n];
+        ints.collection.IntIndexedPriorityQueue pq = new ints.collection.IntIndexedPriorityQueue(n);
         s[0] = true;
-        java.util.PriorityQueue<Edg> pq = new java.util.PriorityQueue<>(g.getE());
-        g.getEdges(0).forEach(pq::add);
-        while (pq.size() > 0 && mst.size() < n - 1) {
-            Edg e = pq.poll();
-            int u = e.from;
-            int v = e.to;
-            if (s[u] && s[v]) continue;
-            if (!s[u]) {
-                int tmp = u; u = v; v = tmp;
+        for (int u = 0; mstSize < n - 1;) {
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
+                if (s[v]) continue;
+                if (!pq.contains(v) || g.cost[k] < pq.getKey(v)) {
+                    pq.update(v, g.cost[k]);
+                    best[v] = k;
+                }
             }
-            cost += e.cost;
-            mst.add(e);
-            s[v] = true;
-            for (Edg edge : g.getEdges(v)) {
-                if (s[edge.from] && s[edge.to]) continue;
-                pq.add(edge);
+            if (pq.isEmpty()) break;
+            u = pq.removeFirst();
+            s[u] = true;
+            cost += g.cost[best[u]];
+            mstIds[mstSize++] = g.id[best[u]];
+        }
+        return cost;
+    }
+
+    /**
+     * 木との間の最小コストの辺を配列で持ち，毎回線形走査で最小の頂点を選ぶ．
+     */
+    private long solve(long[] mat) {
+        if (n == 0) return 0;
+        final long inf = Long.MAX_VALUE;
+        long cost = 0;
+        long[] minCost = new long[n];
+        int[] parent = new int[n];
+        // まだ木に含まれない頂点．選んだ頂点は末尾と入れ替えて取り除く．
+        int[] rest = new int[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            rest[i] = i + 1;
+        }
+        int restNum = n - 1;
+        java.util.Arrays.fill(minCost, inf);
+        for (int u = 0; restNum > 0;) {
+            int row = u * n;
+            int sel = -1;
+            for (int i = 0; i < restNum; i++) {
+                int v = rest[i];
+                long c = mat[row + v];
+                if (c < minCost[v]) {
+                    minCost[v] = c;
+                    parent[v] = u;
+                }
+                if (minCost[v] != inf && (sel < 0 || minCost[v] < minCost[rest[sel]])) sel = i;
             }
+            if (sel < 0) break;
+            u = rest[sel];
+            rest[sel] = rest[--restNum];
+            cost += minCost[u];
+            mstIds[mstSize++] = parent[u] * n + u;
         }
         return cost;
     }
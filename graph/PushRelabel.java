@@ -0,0 +1,310 @@
+package graph;
+/**
+ * 最高ラベル優先の Push-Relabel 法 (HLPP) により最大流問題を解く．計算量は &Theta;(V^2 sqrt(E))．
+ * ギャップヒューリスティックと，一定量の relabel ごとに t からの BFS で高さを付け直す大域的 relabel を行う．
+ * 最大プリフローを求めた後，t に届かなかった超過分を s に押し戻すので，{@code getFlow} と {@code minCut} は
+ * {@code MaxFlow} と同じ意味の値を返す．残余グラフの持ち方も {@code MaxFlow} と同じ．
+ */
+class PushRelabel {
+    private final int n;
+    private final int[] start;
+    private final int[] to;
+    private final int[] rev;
+    private final long[] cap;
+    private final long[] limit;
+
+    private final int[] height;
+    private final long[] excess;
+    private final int[] cur;
+    private final int[] que;
+    /**
+     * 高さ h の活性頂点の単方向リスト．
+     */
+    private final int[] activeHead;
+    private final int[] activeNext;
+    /**
+     * 高さ h の全頂点の双方向リスト．ギャップの検出と，ギャップより上の頂点の列挙に使う．
+     */
+    private final int[] levelHead;
+    private final int[] levelNext;
+    private final int[] levelPrev;
+    private int maxActive;
+    private int maxLevel;
+    private long work;
+
+    public PushRelabel(Digraph<? extends CapEdge> capDigraph) {
+        this.n = capDigraph.getV();
+        this.start = new int[n + 1];
+        int m = capDigraph.getE();
+        for (CapEdge e : capDigraph.getEdges()) {
+            nonNegativeCheck(e.cap, "Capacity");
+            start[e.from + 1]++;
+            start[e.to + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            start[i + 1] += start[i];
+        }
+        this.to = new int[2 * m];
+        this.rev = new int[2 * m];
+        this.cap = new long[2 * m];
+        this.limit = new long[2 * m];
+        int[] idx = new int[n];
+        for (int i = 0; i < n; i++) {
+            idx[i] = start[i] + capDigraph.deg(i);
+        }
+        for (int u = 0; u < n; u++) {
+            int k = capDigraph.deg(u);
+            for (int i = 0; i < k; i++) {
+                CapEdge e = capDigraph.getEdge(u, i);
+                int v = e.to;
+                int f = start[u] + i, r = idx[v]++;
+                e.rev = r - start[v];
+                to[f] = v;
+                to[r] = u;
+                rev[f] = r;
+                rev[r] = f;
+                cap[f] = limit[f] = e.cap;
+            }
+        }
+        this.height = new int[n];
+        this.excess = new long[n];
+        this.cur = new int[n];
+        this.que = new int[n];
+        this.activeHead = new int[n];
+        this.activeNext = new int[n];
+        this.levelHead = new int[n];
+        this.levelNext = new int[n];
+        this.levelPrev = new int[n];
+    }
+
+    public long getFlow(CapEdge e) {
+        return cap[start[e.to] + e.rev];
+    }
+
+    /**
+     * s から t への最大流を最初から計算する．
+     */
+    public long maxFlow(int s, int t) {
+        rangeCheck(s, 0, n);
+        rangeCheck(t, 0, n);
+        if (s == t) {
+            throw new IllegalArgumentException(
+                String.format("Source and sink are the same vertex %d.", s)
+            );
+        }
+        System.arraycopy(limit, 0, cap, 0, cap.length);
+        java.util.Arrays.fill(excess, 0);
+        for (int k = start[s]; k < start[s + 1]; k++) {
+            long c = cap[k];
+            if (c == 0 || to[k] == s) continue;
+            cap[k] = 0;
+            cap[rev[k]] += c;
+            excess[to[k]] += c;
+            excess[s] -= c;
+        }
+        // 最大プリフローを求める．
+        discharge(t, s);
+        // t に届かなかった超過分を s に戻してフローにする．
+        discharge(s, t);
+        return excess[t];
+    }
+
+    /**
+     * {@code sink} と {@code fixed} 以外の超過のある頂点から，残余グラフ上で {@code sink} に届く限り超過分を押し出す．
+     * {@code fixed} の高さは V に固定する．
+     */
+    private void discharge(int sink, int fixed) {
+        final long threshold = 6l * n + cap.length;
+        globalRelabel(sink, fixed);
+        while (true) {
+            while (maxActive >= 0 && activeHead[maxActive] < 0) maxActive--;
+            if (maxActive < 0) return;
+            int u = activeHead[maxActive];
+            activeHead[maxActive] = activeNext[u];
+            discharge(u, sink, fixed);
+            if (work > threshold) globalRelabel(sink, fixed);
+        }
+    }
+
+    private void discharge(int u, int sink, int fixed) {
+        while (excess[u] > 0) {
+            int k = cur[u];
+            if (k == start[u + 1]) {
+                relabel(u);
+                if (height[u] >= n) return;
+                continue;
+            }
+            int v = to[k];
+            if (cap[k] > 0 && height[v] == height[u] - 1) {
+                long d = Math.min(excess[u], cap[k]);
+                cap[k] -= d;
+                cap[rev[k]] += d;
+                excess[u] -= d;
+                if (excess[v] == 0 && v != sink && v != fixed) pushActive(v);
+                excess[v] += d;
+                if (excess[u] == 0) return;
+            }
+            cur[u]++;
+        }
+    }
+
+    private void relabel(int u) {
+        int h = height[u];
+        removeLevel(u);
+        if (levelHead[h] < 0) {
+            // ギャップ: h より上の頂点は sink に到達できない．
+            for (int i = h; i <= maxLevel; i++) {
+                for (int v = levelHead[i]; v >= 0; v = levelNext[v]) {
+                    height[v] = n;
+                }
+                levelHead[i] = -1;
+                activeHead[i] = -1;
+            }
+            height[u] = n;
+            maxLevel = h - 1;
+            return;
+        }
+        work += start[u + 1] - start[u] + 12;
+        int nh = n;
+        for (int k = start[u]; k < start[u + 1]; k++) {
+            if (cap[k] > 0 && height[to[k]] + 1 < nh) {
+                nh = height[to[k]] + 1;
+                cur[u] = k;
+            }
+        }
+        height[u] = nh;
+        if (nh < n) addLevel(u);
+    }
+
+    /**
+     * 残余グラフ上の {@code sink} への距離で全頂点の高さを付け直す．到達できない頂点の高さは V とする．
+     */
+    private void globalRelabel(int sink, int fixed) {
+        work = 0;
+        java.util.Arrays.fill(height, n);
+        java.util.Arrays.fill(activeHead, -1);
+        java.util.Arrays.fill(levelHead, -1);
+        maxActive = maxLevel = -1;
+        height[sink] = 0;
+        int hd = 0, tl = 0;
+        que[tl++] = sink;
+        while (hd < tl) {
+            int u = que[hd++];
+            for (int k = start[u]; k < start[u + 1]; k++) {
+                int v = to[k];
+                if (cap[rev[k]] <= 0 || height[v] < n || v == fixed) continue;
+                height[v] = height[u] + 1;
+                que[tl++] = v;
+            }
+        }
+        for (int i = 0; i < tl; i++) {
+            int v = que[i];
+            cur[v] = start[v];
+            addLevel(v);
+            if (excess[v] > 0 && v != sink) pushActive(v);
+        }
+    }
+
+    private void pushActive(int v) {
+        int h = height[v];
+        activeNext[v] = activeHead[h];
+        activeHead[h] = v;
+        maxActive = Math.max(maxActive, h);
+    }
+
+    private void addLevel(int v) {
+        int h = height[v];
+        levelPrev[v] = -1;
+        levelNext[v] = levelHead[h];
+        if (levelHead[h] >= 0) levelPrev[levelHead[h]] = v;
+        levelHead[h] = v;
+        maxLevel = Math.max(maxLevel, h);
+    }
+
+    private void removeLevel(int v) {
+        int h = height[v];
+        if (levelPrev[v] >= 0) {
+            levelNext[levelPrev[v]] = levelNext[v];
+        } else {
+            levelHead[h] = levelNext[v];
+        }
+        if (levelNext[v] >= 0) levelPrev[levelNext[v]] = levelPrev[v];
+    }
+
+    public boolean[] minCut(int s) {
+        rangeCheck(s, 0, n);
+        boolean[] reachable = new boolean[n];
+        int[] stack = new int[n];
+        int ptr = 0;
+        stack[ptr++] = s;
+        reachable[s] = true;
+        while (ptr > 0) {
+            int u = stack[--ptr];
+            for (int k = start[u]; k < start[u + 1]; k++) {
+                int v = to[k];
+                if (reachable[v] || cap[k] <= 0) continue;
+                reachable[v] = true;
+                stack[ptr++] = v;
+            }
+        }
+        return reachable;
+    }
+
+    private void rangeCheck(int i, int minInlusive, int maxExclusive) {
+        if (i < 0 || i >= maxExclusive) {
+            throw new IndexOutOfBoundsException(
+                String.format("Index %d out of bounds for length %d", i, maxExclusive)
+            );
+        }
+    }
+
+    private void nonNegativeCheck(long cap, java.lang.String attribute) {
+        if (cap < 0) {
+            throw new IllegalArgumentException(
+                String.format("%s %d is negative.", attribute, cap)
+            );
+        }
+    }
+
+    /******* Usage *******/
+
+    /**
+     * 乱択のネットワーク上で {@code MaxFlow} (Dinic 法) と実行時間を比べる．時間は残余グラフの構築を含む．
+     */
+    public static void main(String[] args) {
+        java.util.Random rnd = new java.util.Random(0);
+        final int reps = 3;
+        // {頂点数, 辺数}
+        int[][] sizes = {{1000, 100000}, {10000, 100000}, {100000, 1000000}};
+        for (int[] size : sizes) {
+            int n = size[0], m = size[1];
+            int[] from = new int[m];
+            int[] to = new int[m];
+            long[] cap = new long[m];
+            for (int i = 0; i < m; i++) {
+                from[i] = rnd.nextInt(n);
+                to[i] = rnd.nextInt(n);
+                cap[i] = 1 + rnd.nextInt(1000000);
+            }
+            int s = 0, t = n - 1;
+            long bestDinic = Long.MAX_VALUE, bestHLPP = Long.MAX_VALUE;
+            for (int rep = 0; rep < reps; rep++) {
+                Digraph<CapEdge> g1 = new Digraph<>(n);
+                Digraph<CapEdge> g2 = new Digraph<>(n);
+                for (int i = 0; i < m; i++) {
+                    g1.addEdge(new CapEdge(from[i], to[i], cap[i]));
+                    g2.addEdge(new CapEdge(from[i], to[i], cap[i]));
+                }
+                long t0 = System.nanoTime();
+                long expected = new MaxFlow(g1).maxFlow(s, t);
+                long t1 = System.nanoTime();
+                long flow = new PushRelabel(g2).maxFlow(s, t);
+                long t2 = System.nanoTime();
+                if (flow != expected) throw new AssertionError("Flow differs from MaxFlow.");
+                bestDinic = Math.min(bestDinic, t1 - t0);
+                bestHLPP = Math.min(bestHLPP, t2 - t1);
+            }
+            System.out.printf("V=%-6d E=%-7d MaxFlow %6d ms  PushRelabel %6d ms%n", n, m, bestDinic / 1000000, bestHLPP / 1000000);
+        }
+    }
+}
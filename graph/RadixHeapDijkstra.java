@@ -0,0 +1,172 @@
+package graph;
+/**
+ * Radix Heap を用いて単一始点最短経路問題を解く．Dijkstra 法で取り出される距離が単調非減少であることを利用し，
+ * ヒープ操作を償却 O(log C) (C は最大の距離) で行う．辺の重みは非負でなければならない．
+ */
+class RadixHeapDijkstra {
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    /**
+     * 最後に取り出した key との xor の最上位 bit の位置で分類した 65 個のバケットからなる Radix Heap．
+     * バケットは配列で持ち，容量を倍々に増やしながら使い回すので，追加ごとのオブジェクト生成は発生しない．
+     */
+    private static final class RadixHeap {
+        final long[][] keys = new long[65][];
+        final int[][] vals = new int[65][];
+        final int[] size = new int[65];
+        long last = 0;
+        int total = 0;
+
+        RadixHeap() {
+            for (int i = 0; i <= 64; i++) {
+                keys[i] = new long[4];
+                vals[i] = new int[4];
+            }
+        }
+
+        void add(long key, int val) {
+            int b = 64 - Long.numberOfLeadingZeros(key ^ last);
+            int k = size[b]++;
+            if (k == keys[b].length) {
+                keys[b] = java.util.Arrays.copyOf(keys[b], k << 1);
+                vals[b] = java.util.Arrays.copyOf(vals[b], k << 1);
+            }
+            keys[b][k] = key;
+            vals[b][k] = val;
+            total++;
+        }
+
+        /**
+         * 最小の key を持つ要素をバケット 0 の末尾に移動し，その key を返す．
+         */
+        long pullMin() {
+            if (size[0] == 0) {
+                int b = 1;
+                while (size[b] == 0) b++;
+                long min = Long.MAX_VALUE;
+                for (int i = 0; i < size[b]; i++) {
+                    min = Math.min(min, keys[b][i]);
+                }
+                last = min;
+                int k = size[b];
+                size[b] = 0;
+                total -= k;
+                for (int i = 0; i < k; i++) {
+                    add(keys[b][i], vals[b][i]);
+                }
+            }
+            return keys[0][size[0] - 1];
+        }
+
+        int removeMin() {
+            total--;
+            return vals[0][--size[0]];
+        }
+    }
+
+    private final int n;
+    private final int s;
+    private final long[] dist;
+    private final int[] prevVertex;
+    private final int[] prevEdge;
+
+    public RadixHeapDijkstra(AbstractGraph<? extends AbstractEdge> g, int s) {
+        this(new CSRGraph(g), s);
+    }
+
+    public RadixHeapDijkstra(CSRGraph g, int s) {
+        this.n = g.getV();
+        this.s = s;
+        this.dist = new long[n];
+        this.prevVertex = new int[n];
+        this.prevEdge = new int[n];
+        solve(g);
+    }
+
+    private void solve(CSRGraph g) {
+        java.util.Arrays.fill(dist, UNREACHABLE);
+        java.util.Arrays.fill(prevVertex, -1);
+        java.util.Arrays.fill(prevEdge, -1);
+        dist[s] = 0;
+        RadixHeap pq = new RadixHeap();
+        pq.add(0l, s);
+        while (pq.total > 0) {
+            long d = pq.pullMin();
+            int u = pq.removeMin();
+            if (d != dist[u]) continue;
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
+                long c = g.cost[k];
+                if (c < 0) throw new AssertionError("Negative cost.");
+                if (d + c < dist[v]) {
+                    dist[v] = d + c;
+                    prevVertex[v] = u;
+                    prevEdge[v] = g.id[k];
+                    pq.add(dist[v], v);
+                }
+            }
+        }
+    }
+
+    public int[] pathIds(int t) {
+        if (dist[t] == UNREACHABLE) return null;
+        int m = 0;
+        for (int v = t; v != s; v = prevVertex[v]) m++;
+        int[] path = new int[m];
+        for (int v = t; v != s; v = prevVertex[v]) {
+            path[--m] = prevEdge[v];
+        }
+        return path;
+    }
+
+    public int[] prevEdges() {
+        return prevEdge;
+    }
+
+    public long[] distances() {
+        return dist;
+    }
+
+    public long distance(int i) {
+        return dist[i];
+    }
+
+    public boolean isReachable(int t) {
+        return dist[t] != UNREACHABLE;
+    }
+
+    /******* Usage *******/
+
+    /**
+     * 乱択グラフ上で {@code Dijkstra} と実行時間を比べる．引数は順に頂点数，辺数 (省略可)．
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 10000000;
+        java.util.Random rnd = new java.util.Random(0);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        long[] cost = new long[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = rnd.nextInt(n);
+            to[i] = rnd.nextInt(n);
+            cost[i] = rnd.nextInt(1000000000);
+        }
+        CSRGraph g = new CSRGraph(n, from, to, cost, true);
+        final int reps = 3;
+        long bestDijkstra = Long.MAX_VALUE, bestRadix = Long.MAX_VALUE;
+        for (int rep = 0; rep < reps; rep++) {
+            long t0 = System.nanoTime();
+            long[] expected = new Dijkstra<AbstractEdge>(g, 0).distances();
+            long t1 = System.nanoTime();
+            long[] dist = new RadixHeapDijkstra(g, 0).distances();
+            long t2 = System.nanoTime();
+            if (!java.util.Arrays.equals(dist, expected)) throw new AssertionError("Distances differ from Dijkstra.");
+            bestDijkstra = Math.min(bestDijkstra, t1 - t0);
+            bestRadix = Math.min(bestRadix, t2 - t1);
+        }
+        System.out.printf("V=%d E=%d%n", n, m);
+        System.out.printf("Dijkstra          %8d ms%n", bestDijkstra / 1000000);
+        System.out.printf("RadixHeapDijkstra %8d ms%n", bestRadix / 1000000);
+    }
+}
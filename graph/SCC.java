@@ -8,11 +8,18 @@ class SCC {
     final int m;
     final int[] ids;
     final int[][] groups;
+    private final CSRGraph g;
+    private CSRGraph condensation;
 
     public SCC(Digraph<? extends AbstractEdge> g) {
+        this(new CSRGraph(g));
+    }
+
+    public SCC(CSRGraph g) {
         this.n = g.getV();
         this.m = g.getE();
         this.ids = new int[n];
+        this.g = g;
         this.groups = build(g);
     }
 
@@ -28,7 +35,54 @@ class SCC {
         return ids[i];
     }
 
-    private int[][] build(Digraph<? extends AbstractEdge> g) {
+    /**
+     * 各強連結成分を 1 頂点に縮約した DAG を返す．頂点番号は {@code getIds()} の成分番号と同じで，
+     * 辺は全て番号の小さい成分から大きい成分へ向かう (番号の順がトポロジカル順序)．
+     * 同じ成分の組を結ぶ多重辺はコストが最小の 1 本にまとめ，{@code id} にはその辺の元のグラフでの番号を持つ．
+     * 成分内の辺は含まない．初回の呼び出し時に &Theta;(E+V) で構築する．
+     */
+    public CSRGraph getCondensation() {
+        if (condensation == null) condensation = buildCondensation();
+        return condensation;
+    }
+
+    private CSRGraph buildCondensation() {
+        int c = groups.length;
+        int slots = g.start[n];
+        int[] start = new int[c + 1];
+        int[] to = new int[slots];
+        long[] cost = new long[slots];
+        int[] id = new int[slots];
+        // last[d] は成分 d への辺を最後に追加した成分，pos[d] はその辺の位置．
+        int[] last = new int[c];
+        int[] pos = new int[c];
+        java.util.Arrays.fill(last, -1);
+        int k = 0;
+        for (int x = 0; x < c; x++) {
+            start[x] = k;
+            for (int u : groups[x]) {
+                for (int j = g.start[u]; j < g.start[u + 1]; j++) {
+                    int y = ids[g.to[j]];
+                    if (y == x) continue;
+                    if (last[y] != x) {
+                        last[y] = x;
+                        pos[y] = k;
+                        to[k] = y;
+                        cost[k] = g.cost[j];
+                        id[k] = g.id[j];
+                        k++;
+                    } else if (g.cost[j] < cost[pos[y]]) {
+                        cost[pos[y]] = g.cost[j];
+                        id[pos[y]] = g.id[j];
+                    }
+                }
+            }
+        }
+        start[c] = k;
+        return new CSRGraph(c, k, true, start, java.util.Arrays.copyOf(to, k), java.util.Arrays.copyOf(cost, k), java.util.Arrays.copyOf(id, k));
+    }
+
+    private int[][] build(CSRGraph g) {
         int nowOrd = 0;
         int groupNum = 0;
         int k = 0;
@@ -52,7 +106,7 @@ class SCC {
                     vis[k++] = u;
                 }
                 if (j < g.deg(u)) {
-                    int to = g.getEdge(u, j).to;
+                    int to = g.to[g.start[u] + j];
                     stack[ptr++] += 1l << 32;
                     if (ord[to] == -1) {
                         stack[ptr++] = 0l << 32 | to;
@@ -62,7 +116,7 @@ class SCC {
                     }
                 } else {
                     while (j --> 0) {
-                        int to = g.getEdge(u, j).to;
+                        int to = g.to[g.start[u] + j];
                         if (par[to] == u) low[u] = Math.min(low[u], low[to]);
                     }
                     if (low[u] == ord[u]) {
@@ -0,0 +1,278 @@
+package graph;
+/**
+ * Stoer-Wagner のアルゴリズムにより，無向グラフの大域的な最小カット (頂点集合を空でない 2 つに分けるカットの容量の最小値) を
+ * &Theta;(V^3) で求める．隣接行列は {@code [u * V + v]} に u と v を結ぶ辺の重みの和を持つ一次元の {@code long} 配列で受け取る．
+ *
+ * 各フェーズでは最も強く結合した頂点を順に選ぶ．密グラフでは各フェーズで &Theta;(V^2) 回のキーの更新が起こるので，
+ * ヒープを使うと &Theta;(V^2 logV) になる．そのため，隣接行列から構築した場合はキーを配列で持ち最大値の選択を線形走査で行う．
+ * 疎なグラフでは，隣接リストと位置索引付きヒープを使い全体で &Theta;(V E logV) で解く方法も選べる．
+ */
+class StoerWagner {
+    public static final long INF = Long.MAX_VALUE;
+
+    /**
+     * {@code CSRGraph} から構築する場合，辺の slot の数のこの倍が V^2 未満ならヒープを使う．
+     */
+    private static final long HEAP_DENSITY_RATIO = 16;
+
+    private final int n;
+    private final long minCut;
+    private final boolean[] partition;
+
+    /**
+     * @param mat 対称な隣接行列．重みは非負でなければならない．{@code mat} は書き換えない．
+     */
+    public StoerWagner(int n, long[] mat) {
+        if (mat.length != (long) n * n) {
+            throw new IllegalArgumentException(
+                String.format("Matrix length %d is not %d * %d.", mat.length, n, n)
+            );
+        }
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                if (mat[u * n + v] < 0) throw new AssertionError("Negative cost.");
+                if (mat[u * n + v] != mat[v * n + u]) {
+                    throw new IllegalArgumentException(
+                        String.format("Matrix is not symmetric at (%d, %d).", u, v)
+                    );
+                }
+            }
+        }
+        this.n = n;
+        this.partition = new boolean[n];
+        this.minCut = solve(mat.clone());
+    }
+
+    public StoerWagner(Graph<? extends AbstractEdge> g) {
+        this(new CSRGraph(g));
+    }
+
+    /**
+     * 辺の数が V^2 に比べて十分少なければヒープを使う方法，そうでなければ隣接行列を使う方法で解く．
+     */
+    public StoerWagner(CSRGraph g) {
+        this(g, (long) g.to.length * HEAP_DENSITY_RATIO < (long) g.getV() * g.getV());
+    }
+
+    /**
+     * @param useHeap {@code true} なら隣接リストと位置索引付きヒープを使い &Theta;(V E logV) で解く．
+     * {@code false} なら隣接行列を作り &Theta;(V^3) で解く．
+     */
+    public StoerWagner(CSRGraph g, boolean useHeap) {
+        if (g.directed) throw new UnsupportedOperationException("Global minimum cut requires an undirected graph.");
+        for (long c : g.cost) {
+            if (c < 0) throw new AssertionError("Negative cost.");
+        }
+        this.n = g.getV();
+        this.partition = new boolean[n];
+        this.minCut = useHeap ? solve(g) : solve(adjacencyMatrix(g));
+    }
+
+    private static long[] adjacencyMatrix(CSRGraph g) {
+        int n = g.getV();
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                String.format("Matrix for %d vertices is too large.", n)
+            );
+        }
+        long[] mat = new long[n * n];
+        for (int u = 0; u < n; u++) {
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
+                if (u != v) mat[u * n + v] += g.cost[k];
+            }
+        }
+        return mat;
+    }
+
+    private long solve(long[] w) {
+        if (n < 2) return INF;
+        // 縮約された頂点の集合を，代表元から始まる連結リストで持つ．
+        int[] next = new int[n];
+        int[] tail = new int[n];
+        // 残っている頂点は行列の左上 cnt×cnt の範囲に詰めて持ち，id[i] は i 番目の頂点の代表元．
+        // 走査が各行の先頭から連続した範囲へのアクセスになる．
+        int[] id = new int[n];
+        for (int v = 0; v < n; v++) {
+            next[v] = -1;
+            tail[v] = v;
+            id[v] = v;
+        }
+        long[] key = new long[n];
+        // 各フェーズでまだ選ばれていない頂点．昇順を保ったまま取り除く．
+        int[] rest = new int[n];
+        long best = INF;
+        for (int cnt = n; cnt > 1; cnt--) {
+            for (int i = 0; i < cnt; i++) {
+                rest[i] = i;
+                key[i] = 0;
+            }
+            int prev = -1, last = -1;
+            int restNum = cnt, u = 0;
+            while (restNum > 0) {
+                prev = last;
+                last = u;
+                // 選んだ頂点の除去，キーの更新，次に選ぶ頂点の探索を同じ走査で行う．
+                int row = u * n;
+                long max = -1;
+                int num = 0;
+                for (int i = 0; i < restNum; i++) {
+                    int v = rest[i];
+                    if (v == last) continue;
+                    rest[num++] = v;
+                    long kv = key[v] += w[row + v];
+                    if (kv > max) {
+                        max = kv;
+                        u = v;
+                    }
+                }
+                restNum = num;
+            }
+            if (key[last] < best) {
+                best = key[last];
+                java.util.Arrays.fill(partition, false);
+                for (int v = id[last]; v >= 0; v = next[v]) {
+                    partition[v] = true;
+                }
+            }
+            // last を prev に縮約し，末尾の頂点を last の位置に移す．
+            int pr = prev * n, lr = last * n;
+            for (int i = 0; i < cnt; i++) {
+                w[pr + i] += w[lr + i];
+                w[i * n + prev] = w[pr + i];
+            }
+            w[pr + prev] = 0;
+            next[tail[id[prev]]] = id[last];
+            tail[id[prev]] = tail[id[last]];
+            int end = cnt - 1;
+            if (last != end) {
+                int er = end * n;
+                for (int i = 0; i < cnt; i++) {
+                    w[lr + i] = w[er + i];
+                }
+                for (int i = 0; i < cnt; i++) {
+                    w[i * n + last] = w[er + i];
+                }
+                w[lr + last] = 0;
+                id[last] = id[end];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 各フェーズで選ぶ頂点を，縮約後の頂点ごとの結合の強さをキーとする位置索引付きヒープ (キーを負にした最大ヒープ) で求める．
+     * 縮約は各頂点の代表元を付け替えることで行い，辺は元のグラフの隣接リストをそのまま走査する．
+     */
+    private long solve(CSRGraph g) {
+        if (n < 2) return INF;
+        int[] rep = new int[n];
+        int[] next = new int[n];
+        int[] tail = new int[n];
+        // 残っている代表元．
+        int[] alive = new int[n];
+        for (int v = 0; v < n; v++) {
+            rep[v] = v;
+            next[v] = -1;
+            tail[v] = v;
+            alive[v] = v;
+        }
+        ints.collection.IntIndexedPriorityQueue pq = new ints.collection.IntIndexedPriorityQueue(n);
+        long best = INF;
+        for (int cnt = n; cnt > 1; cnt--) {
+            for (int i = 0; i < cnt; i++) {
+                pq.add(alive[i], 0);
+            }
+            int prev = -1, last = -1;
+            long cut = 0;
+            while (!pq.isEmpty()) {
+                cut = -pq.getFirstKey();
+                int u = pq.removeFirst();
+                prev = last;
+                last = u;
+                for (int x = u; x >= 0; x = next[x]) {
+                    for (int k = g.start[x]; k < g.start[x + 1]; k++) {
+                        int y = rep[g.to[k]];
+                        if (pq.contains(y)) pq.update(y, pq.getKey(y) - g.cost[k]);
+                    }
+                }
+            }
+            if (cut < best) {
+                best = cut;
+                java.util.Arrays.fill(partition, false);
+                for (int v = last; v >= 0; v = next[v]) {
+                    partition[v] = true;
+                }
+            }
+            // last を prev に縮約する．
+            for (int v = last; v >= 0; v = next[v]) {
+                rep[v] = prev;
+            }
+            next[tail[prev]] = last;
+            tail[prev] = tail[last];
+            for (int i = 0; i < cnt; i++) {
+                if (alive[i] == last) {
+                    alive[i] = alive[cnt - 1];
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 大域的な最小カットの容量．V < 2 の場合は {@code INF}．
+     */
+    public long minCut() {
+        return minCut;
+    }
+
+    /**
+     * 最小カットの一方の側に含まれる頂点を {@code true} とした配列．
+     */
+    public boolean[] getPartition() {
+        return partition;
+    }
+
+    /******* Usage *******/
+
+    /**
+     * V = 250, 500, 1000, 2000 の密なグラフ (完全グラフ) と疎なグラフ (E = 4V) で，隣接行列の線形走査とヒープの実行時間を比べる．
+     */
+    public static void main(String[] args) {
+        java.util.Random rnd = new java.util.Random(0);
+        for (int n : new int[]{250, 500, 1000, 2000}) {
+            for (boolean dense : new boolean[]{true, false}) {
+                int m = dense ? n * (n - 1) / 2 : 4 * n;
+                int[] from = new int[m];
+                int[] to = new int[m];
+                long[] cost = new long[m];
+                int e = 0;
+                if (dense) {
+                    for (int u = 0; u < n; u++) {
+                        for (int v = u + 1; v < n; v++, e++) {
+                            from[e] = u;
+                            to[e] = v;
+                            cost[e] = rnd.nextInt(1000000);
+                        }
+                    }
+                } else {
+                    for (; e < m; e++) {
+                        // 先頭の n-1 本でパスを作り，連結にする．
+                        from[e] = e < n - 1 ? e : rnd.nextInt(n);
+                        to[e] = e < n - 1 ? e + 1 : rnd.nextInt(n);
+                        cost[e] = rnd.nextInt(1000000);
+                    }
+                }
+                CSRGraph g = new CSRGraph(n, from, to, cost, false);
+                long t0 = System.nanoTime();
+                long scan = new StoerWagner(g, false).minCut();
+                long t1 = System.nanoTime();
+                long heap = new StoerWagner(g, true).minCut();
+                long t2 = System.nanoTime();
+                if (scan != heap) throw new AssertionError("Cuts differ between the two methods.");
+                System.out.printf("V=%-5d %-6s E=%-8d scan %7d ms  heap %7d ms%n", n, dense ? "dense" : "sparse", m, (t1 - t0) / 1000000, (t2 - t1) / 1000000);
+            }
+        }
+    }
+}
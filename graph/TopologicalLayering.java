@@ -0,0 +1,124 @@
+package graph;
+/**
+ * DAG の頂点を，入次数が 0 になった時点の段数ごとのレベル (互いに到達不能な頂点の集合) に分ける．
+ * レベル i の頂点は全ての辺の始点がレベル i 未満にあるので，レベルの順に各レベル内を並行に処理できる．
+ * 入次数の計算と各レベルのフロンティアからの辺の走査は {@code ForkJoinPool} 上で並列に行い，入次数の減算と次のレベルへの追加は
+ * アトミック操作で行う．計算量は &Theta;(E+V) (各レベル内の整列を除く)．
+ */
+class TopologicalLayering {
+    private static final java.lang.invoke.VarHandle INT = java.lang.invoke.MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * 辺や頂点の数がこれ未満の場合は並列化せずに呼び出し元のスレッドで処理する．
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+
+    private final int n;
+    private final CSRGraph g;
+    private final java.util.concurrent.ForkJoinPool pool;
+    private final int[] vertices;
+    private final int[] level;
+    private int[] levelStart;
+    private final boolean isDAG;
+
+    public TopologicalLayering(Digraph<? extends AbstractEdge> g) {
+        this(new CSRGraph(g));
+    }
+
+    public TopologicalLayering(CSRGraph g) {
+        this(g, java.util.concurrent.ForkJoinPool.commonPool());
+    }
+
+    public TopologicalLayering(CSRGraph g, java.util.concurrent.ForkJoinPool pool) {
+        if (!g.directed) throw new UnsupportedOperationException("Topological layering requires a directed graph.");
+        this.n = g.getV();
+        this.g = g;
+        this.pool = pool;
+        this.vertices = new int[n];
+        this.level = new int[n];
+        this.isDAG = build();
+    }
+
+    public boolean isDAG() {
+        return isDAG;
+    }
+
+    /**
+     * レベルの数．有向閉路がある場合は -1．
+     */
+    public int levelNum() {
+        return isDAG ? levelStart.length - 1 : -1;
+    }
+
+    /**
+     * レベル i の頂点は {@code getVertices()} の {@code [levelStart[i], levelStart[i + 1])} の範囲にある．
+     * 有向閉路がある場合は {@code null}．
+     */
+    public int[] getLevelStart() {
+        return isDAG ? levelStart : null;
+    }
+
+    /**
+     * 頂点をレベルの昇順に並べた列．各レベル内では頂点番号の昇順．これはトポロジカル順序の一つである．
+     * 有向閉路がある場合は {@code null}．
+     */
+    public int[] getVertices() {
+        return isDAG ? vertices : null;
+    }
+
+    /**
+     * 各頂点のレベル．有向閉路がある場合は {@code null}．
+     */
+    public int[] getLevel() {
+        return isDAG ? level : null;
+    }
+
+    private boolean build() {
+        int[] indeg = new int[n];
+        parallel(n, g.getE(), u -> {
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                INT.getAndAdd(indeg, g.to[k], 1);
+            }
+        });
+        int tl = 0;
+        for (int u = 0; u < n; u++) {
+            if (indeg[u] == 0) vertices[tl++] = u;
+        }
+        int[] starts = new int[n + 2];
+        int levels = 0;
+        // tail[0] は次のレベルの末尾で，複数のスレッドから getAndAdd で確保する．
+        int[] tail = {tl};
+        for (int hd = 0; hd < tl;) {
+            starts[levels] = hd;
+            final int from = hd, to = tl, lv = levels;
+            parallel(to - from, to - from, i -> {
+                int u = vertices[from + i];
+                level[u] = lv;
+                for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                    int v = g.to[k];
+                    if ((int) INT.getAndAdd(indeg, v, -1) == 1) {
+                        vertices[(int) INT.getAndAdd(tail, 0, 1)] = v;
+                    }
+                }
+            });
+            hd = to;
+            tl = tail[0];
+            java.util.Arrays.sort(vertices, hd, tl);
+            levels++;
+        }
+        starts[levels] = tl;
+        this.levelStart = java.util.Arrays.copyOf(starts, levels + 1);
+        return tl == n;
+    }
+
+    /**
+     * {@code work} は処理の量の目安で，これが閾値未満なら逐次に処理する．
+     */
+    private void parallel(int taskNum, int work, java.util.function.IntConsumer task) {
+        if (work < SEQUENTIAL_THRESHOLD) {
+            for (int i = 0; i < taskNum; i++) task.accept(i);
+        } else {
+            pool.submit(() -> java.util.stream.IntStream.range(0, taskNum).parallel().forEach(task)).join();
+        }
+    }
+}
@@ -9,6 +9,9 @@ class TopologicalSort {
     private final int[] inv;
     private final boolean isDAG;
     public TopologicalSort(Digraph<? extends AbstractEdge> g) {
+        this(new CSRGraph(g));
+    }
+    public TopologicalSort(CSRGraph g) {
         this.n = g.getV();
         this.ord = new int[n];
         this.inv = new int[n];
@@ -23,9 +26,9 @@ class TopologicalSort {
     public int[] topologicalOrderInv() {
         return isDAG ? inv : null;
     }
-    private boolean build(Digraph<? extends AbstractEdge> g) {
-        for (AbstractEdge e : g.getEdges()) {
-            inv[e.to]++;
+    private boolean build(CSRGraph g) {
+        for (int v : g.to) {
+            inv[v]++;
         }
         int hd = 0, tl = 0;
         for (int u = 0; u < n; u++) {
@@ -35,8 +38,8 @@ class TopologicalSort {
         }
         while (tl > hd) {
             int u = ord[hd++];
-            for (AbstractEdge e : g.getEdges(u)) {
-                int v = e.to;
+            for (int k = g.start[u]; k < g.start[u + 1]; k++) {
+                int v = g.to[k];
                 if (--inv[v] == 0) {
                     ord[inv[v] = tl++] = v;
                 }
@@ -0,0 +1,106 @@
+package graph;
+/**
+ * 2-SAT を解く．変数 x_i のリテラルを整数で表し，x_i を {@code 2 * i}，not x_i を {@code 2 * i + 1} とする．
+ * 節 (a or b) を not a -> b，not b -> a の 2 本の辺として含意グラフを CSR 形式で構築し，{@code SCC} で強連結成分分解する．
+ * 節は {@code int} 配列で持ち，節ごとのオブジェクトは作らない．計算量は N を変数の数，M を節の数として &Theta;(N+M)．
+ */
+class TwoSAT {
+    private final int n;
+    private int[] lit1;
+    private int[] lit2;
+    private int m = 0;
+    private boolean[] answer;
+
+    public TwoSAT(int n) {
+        this.n = n;
+        this.lit1 = new int[16];
+        this.lit2 = new int[16];
+    }
+
+    /**
+     * 節 (lit1[k] or lit2[k]) を全て持つ 2-SAT を構築する．配列はコピーせずに保持する．
+     */
+    public TwoSAT(int n, int[] lit1, int[] lit2) {
+        if (lit1.length != lit2.length) {
+            throw new IllegalArgumentException(
+                String.format("Lengths %d and %d differ.", lit1.length, lit2.length)
+            );
+        }
+        this.n = n;
+        this.lit1 = lit1;
+        this.lit2 = lit2;
+        this.m = lit1.length;
+        for (int k = 0; k < m; k++) {
+            rangeCheck(lit1[k], 0, 2 * n);
+            rangeCheck(lit2[k], 0, 2 * n);
+        }
+    }
+
+    /**
+     * 節 (x_i = f or x_j = g) を追加する．
+     */
+    public void addClause(int i, boolean f, int j, boolean g) {
+        rangeCheck(i, 0, n);
+        rangeCheck(j, 0, n);
+        addClause(2 * i + (f ? 0 : 1), 2 * j + (g ? 0 : 1));
+    }
+
+    /**
+     * リテラル a，b による節 (a or b) を追加する．
+     */
+    public void addClause(int a, int b) {
+        rangeCheck(a, 0, 2 * n);
+        rangeCheck(b, 0, 2 * n);
+        if (m == lit1.length) {
+            int len = Math.max(16, m << 1);
+            lit1 = java.util.Arrays.copyOf(lit1, len);
+            lit2 = java.util.Arrays.copyOf(lit2, len);
+        }
+        lit1[m] = a;
+        lit2[m] = b;
+        m++;
+        answer = null;
+    }
+
+    /**
+     * 充足可能かを判定する．充足可能なら {@code getAnswer()} で解の一つが得られる．
+     */
+    public boolean satisfiable() {
+        int[] from = new int[2 * m];
+        int[] to = new int[2 * m];
+        for (int k = 0; k < m; k++) {
+            int a = lit1[k], b = lit2[k];
+            from[2 * k] = a ^ 1;
+            to[2 * k] = b;
+            from[2 * k + 1] = b ^ 1;
+            to[2 * k + 1] = a;
+        }
+        int[] ids = new SCC(new CSRGraph(2 * n, from, to, true)).getIds();
+        boolean[] ans = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (ids[2 * i] == ids[2 * i + 1]) {
+                answer = null;
+                return false;
+            }
+            // 成分番号はトポロジカル順なので，含意グラフで後ろにあるリテラルを真にする．
+            ans[i] = ids[2 * i] > ids[2 * i + 1];
+        }
+        answer = ans;
+        return true;
+    }
+
+    /**
+     * 直前の {@code satisfiable()} で求めた解．充足不能だった場合や，その後に節を追加した場合は {@code null}．
+     */
+    public boolean[] getAnswer() {
+        return answer;
+    }
+
+    private void rangeCheck(int i, int minInlusive, int maxExclusive) {
+        if (i < 0 || i >= maxExclusive) {
+            throw new IndexOutOfBoundsException(
+                String.format("Index %d out of bounds for length %d", i, maxExclusive)
+            );
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package ints.collection;
+
+import java.util.NoSuchElementException;
+
+/**
+ * 0 以上 N 未満の {@code int} 型の id に {@code long} 型の key を対応させて管理する，位置索引付きの二分ヒープ．
+ * 同じ id は高々 1 つしか格納されず，以下の操作を行うことが出来る．
+ *
+ * 1. key が最小の id の取得．O(1)
+ * 2. key が最小の id の削除．O(log N)
+ * 3. id の追加，および格納済みの id の key の変更 (decrease-key を含む)．O(log N)
+ *
+ * 配列は全て構築時に確保するので，以降の操作では一切メモリ確保を行わない．
+ * そのため，Dijkstra 法のように同じ id の key を何度も更新する用途では {@code IntPriorityQueue} に状態を詰めて追加するよりも高速．
+ */
+public class IntIndexedPriorityQueue {
+
+    /**
+     * 二分ヒープは配列で表現する．1-indexed なので，i の左の子は 2*i，右の子は 2*i+1．
+     */
+    final int[] que;
+
+    /**
+     * pos[id] は id の {@code que} における位置．id がヒープに含まれない場合は 0．
+     */
+    final int[] pos;
+
+    /**
+     * keys[id] は id に対応する key．
+     */
+    final long[] keys;
+
+    /**
+     * 要素数
+     */
+    int size = 0;
+
+    /**
+     * 0 以上 {@code n} 未満の id を格納できる空のヒープを構築する．
+     * @param n id の種類数
+     */
+    public IntIndexedPriorityQueue(int n) {
+        this.que = new int[n + 1];
+        this.pos = new int[n];
+        this.keys = new long[n];
+    }
+
+    /**
+     * id を key と共に追加する．
+     * @param id 追加する id
+     * @param key id に対応させる key
+     * @throws IllegalArgumentException {@code id} が既にヒープに含まれている場合
+     */
+    public void add(int id, long key) {
+        if (pos[id] != 0) {
+            throw new IllegalArgumentException(
+                String.format("Id %d is already in the queue.", id)
+            );
+        }
+        keys[id] = key;
+        que[++size] = id;
+        pos[id] = size;
+        siftUp(size);
+    }
+
+    /**
+     * id がヒープに含まれていなければ追加し，含まれていれば key を変更する．
+     * @param id 追加または更新する id
+     * @param key id に対応させる key
+     */
+    public void update(int id, long key) {
+        if (pos[id] == 0) {
+            add(id, key);
+        } else if (key < keys[id]) {
+            keys[id] = key;
+            siftUp(pos[id]);
+        } else {
+            keys[id] = key;
+            siftDown(pos[id]);
+        }
+    }
+
+    /**
+     * key が最小の id を削除し，その id を返す．
+     * @return 削除された id
+     * @throws NoSuchElementException キューが空の場合
+     */
+    public int removeFirst() {
+        if (size == 0) throw new NoSuchElementException();
+        int ret = que[1];
+        removeAt(1);
+        return ret;
+    }
+
+    /**
+     * id をヒープから削除する．id が含まれていなければ何もしない．
+     * @param id 削除する id
+     * @return id がヒープに含まれていれば {@code true}，そうでなければ {@code false}
+     */
+    public boolean remove(int id) {
+        if (pos[id] == 0) return false;
+        removeAt(pos[id]);
+        return true;
+    }
+
+    /**
+     * {@code que} の i 番目の要素を削除し，二分ヒープの条件を回復する．
+     * @param i 削除する要素の位置
+     */
+    void removeAt(int i) {
+        pos[que[i]] = 0;
+        int last = que[size--];
+        if (i > size) return;
+        que[i] = last;
+        pos[last] = i;
+        siftUp(i);
+        siftDown(pos[last]);
+    }
+
+    /**
+     * {@code que} の i 番目の要素を親と比較しながら上に移動させる．
+     * @param i 移動させる要素の位置
+     */
+    void siftUp(int i) {
+        int e = que[i];
+        long k = keys[e];
+        while (i > 1) {
+            int p = i >> 1;
+            if (k >= keys[que[p]]) break;
+            pos[que[i] = que[p]] = i;
+            i = p;
+        }
+        pos[que[i] = e] = i;
+    }
+
+    /**
+     * {@code que} の i 番目の要素を子と比較しながら下に移動させる．
+     * @param i 移動させる要素の位置
+     */
+    void siftDown(int i) {
+        int e = que[i];
+        long k = keys[e];
+        int h = size >> 1;
+        while (i <= h) {
+            int c = i << 1;
+            if (c < size && keys[que[c | 1]] < keys[que[c]]) c |= 1;
+            if (k <= keys[que[c]]) break;
+            pos[que[i] = que[c]] = i;
+            i = c;
+        }
+        pos[que[i] = e] = i;
+    }
+
+    /**
+     * key が最小の id を削除せずに取得する．
+     * @return key が最小の id
+     * @throws NoSuchElementException キューが空の場合
+     */
+    public int getFirst() {
+        if (size == 0) throw new NoSuchElementException();
+        return que[1];
+    }
+
+    /**
+     * 最小の key を取得する．
+     * @return 最小の key
+     * @throws NoSuchElementException キューが空の場合
+     */
+    public long getFirstKey() {
+        if (size == 0) throw new NoSuchElementException();
+        return keys[que[1]];
+    }
+
+    /**
+     * id に対応する key を返す．id がヒープに含まれない場合の値は不定．
+     * @param id key を取得する id
+     * @return id に対応する key
+     */
+    public long getKey(int id) {
+        return keys[id];
+    }
+
+    /**
+     * id がヒープに含まれているかを判定する
+     * @param id 判定する id
+     * @return 含まれていれば {@code true}，そうでなければ {@code false}
+     */
+    public boolean contains(int id) {
+        return pos[id] != 0;
+    }
+
+    /**
+     * キューの要素数を返す
+     * @return キューの要素数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * キューが空であるかを判定する
+     * @return キューが空なら {@code true}，そうでなければ {@code false}
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * キューの要素をすべて削除する．要素数に比例する時間がかかる．
+     */
+    public void clear() {
+        while (size > 0) pos[que[size--]] = 0;
+    }
+
+    /***************************** DEBUG *********************************/
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 1; i <= size; i++) {
+            sb.append(que[i]).append('=').append(keys[que[i]]);
+            if (i < size) sb.append(", ");
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+    /******* Usage *******/
+
+    public static void main(String[] args) {
+        IntIndexedPriorityQueue pq = new IntIndexedPriorityQueue(8);
+        pq.add(0, 30); pq.add(1, 10); pq.add(2, 20);
+        pq.add(3, 50); pq.add(4, 40);
+        pq.update(3, 5);   // decrease-key
+        pq.update(1, 100); // increase-key
+        pq.remove(4);
+        while (pq.size() > 0) {
+            long key = pq.getFirstKey();
+            int id = pq.removeFirst();
+            System.out.printf("%d=%d", id, key); // => 3=5, 2=20, 0=30, 1=100
+            if (pq.size() > 0) {
+                System.out.print(", ");
+            } else {
+                System.out.println();
+            }
+        }
+    }
+}
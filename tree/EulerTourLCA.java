@@ -4,7 +4,7 @@ package tree;
  * - http://judge.u-aizu.ac.jp/onlinejudge/description.jsp?id=GRL_5_C
  * - https://atcoder.jp/contests/abc014/tasks/abc014_4
  */
-class EulerTourLCA {
+public class EulerTourLCA {
     private final int n;
     private final int[] tour;
     private final int[] tbeg;
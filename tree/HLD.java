@@ -4,7 +4,7 @@ package tree;
  * - http://judge.u-aizu.ac.jp/onlinejudge/description.jsp?id=GRL_5_D (queryForEdge)
  * - http://judge.u-aizu.ac.jp/onlinejudge/description.jsp?id=GRL_5_E (queryForEdge)
  */
-class HLD {
+public class HLD {
     @FunctionalInterface
     public static interface IntBiConsumer {
         public void accept(int u, int v);
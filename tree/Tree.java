@@ -64,14 +64,17 @@ class TreeBuilder {
     }
 }
 
-class Tree {
+public class Tree {
     final int n;
     final int root;
     final int[][] adj;
     final int[] par;
     final int[] pre;
     final int[] pst;
-    Tree(int n, int root, int[][] adj) {
+    /**
+     * {@code adj[u]} は u に隣接する頂点の列で，各辺を両方向に 1 回ずつ含む．{@code adj} はコピーせずに保持する．
+     */
+    public Tree(int n, int root, int[][] adj) {
         this.n = n;
         this.adj = adj;
         this.root = root;